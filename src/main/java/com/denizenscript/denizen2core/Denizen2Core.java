@@ -12,35 +12,36 @@ import com.denizenscript.denizen2core.events.commonevents.SystemLoadEvent;
 import com.denizenscript.denizen2core.scripts.commontypes.TaskScript;
 import com.denizenscript.denizen2core.scripts.commontypes.YamlDataScript;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
+import com.denizenscript.denizen2core.tags.BinarySaveCodec;
 import com.denizenscript.denizen2core.tags.handlers.*;
 import com.denizenscript.denizen2core.tags.objects.*;
 import com.denizenscript.denizen2core.utilities.*;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.debugging.TickWatchdog;
 import com.denizenscript.denizen2core.addons.AddonLoader;
 import com.denizenscript.denizen2core.addons.DenizenAddon;
 import com.denizenscript.denizen2core.arguments.Argument;
 import com.denizenscript.denizen2core.arguments.TagArgumentBit;
 import com.denizenscript.denizen2core.arguments.TextArgumentBit;
 import com.denizenscript.denizen2core.commands.commoncommands.EchoCommand;
+import com.denizenscript.denizen2core.commands.commoncommands.ProfileCommand;
 import com.denizenscript.denizen2core.commands.commoncommands.ReloadCommand;
 import com.denizenscript.denizen2core.scripts.CommandScript;
-import com.denizenscript.denizen2core.scripts.ScriptHelper;
+import com.denizenscript.denizen2core.scripts.ScriptFileLoad;
+import com.denizenscript.denizen2core.scripts.ScriptFolderWatcher;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
 import com.denizenscript.denizen2core.scripts.commontypes.ProcedureScript;
 import com.denizenscript.denizen2core.scripts.commontypes.WorldScript;
 import com.denizenscript.denizen2core.tags.AbstractTagBase;
-import com.denizenscript.denizen2core.utilities.yaml.StringHolder;
 import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.FileVisitOption;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * The main entry class for Denizen2's core engine.
@@ -75,22 +76,52 @@ public class Denizen2Core {
         }
     }
 
-    private static Denizen2Implementation implementation;
+    private static volatile DenizenEngine defaultEngine = null;
 
-    public final static HashMap<String, CommandScript> currentScripts = new HashMap<>();
+    /**
+     * Returns the engine created by init, which the static API works on when no other engine is running on the calling thread.
+     */
+    public static DenizenEngine getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    /**
+     * Returns the scripts of the current script generation.
+     * Queues should look scripts up in their own generation instead, see {@link CommandQueue#getScript(String)}.
+     */
+    public static HashMap<String, CommandScript> getCurrentScripts() {
+        return DenizenEngine.current().generation.scripts;
+    }
+
+    /**
+     * A view of {@link #getCurrentScripts()} for the engine running on the calling thread.
+     * @deprecated Use {@link #getCurrentScripts()}.
+     */
+    @Deprecated
+    public final static HashMap<String, CommandScript> currentScripts = new MapView<>(Denizen2Core::getCurrentScripts);
+
+    public final static HashMap<String, AbstractCommand> commands = new SnapshotMap<>();
 
-    public final static HashMap<String, AbstractCommand> commands = new HashMap<>();
+    public final static HashMap<String, AbstractTagBase> tagBases = new SnapshotMap<>();
 
-    public final static HashMap<String, AbstractTagBase> tagBases = new HashMap<>();
+    public final static List<ScriptEvent> events = new CopyOnWriteArrayList<>();
 
-    public final static List<ScriptEvent> events = new ArrayList<>();
+    public final static HashMap<String, Function2<String, YAMLConfiguration, CommandScript>> scriptTypeGetters = new SnapshotMap<>();
 
-    public final static HashMap<String, Function2<String, YAMLConfiguration, CommandScript>> scriptTypeGetters = new HashMap<>();
+    public static Map<String, Object> getFilesLoadedByScripts() {
+        return DenizenEngine.current().filesLoadedByScripts;
+    }
 
-    public final static HashMap<String, Object> filesLoadedByScripts = new HashMap<>();
+    /**
+     * A view of {@link #getFilesLoadedByScripts()} for the engine running on the calling thread.
+     * @deprecated Use {@link #getFilesLoadedByScripts()}.
+     */
+    @Deprecated
+    public final static HashMap<String, Object> filesLoadedByScripts = new MapView<>(Denizen2Core::getFilesLoadedByScripts);
 
     public static Denizen2Implementation getImplementation() {
-        return implementation;
+        DenizenEngine engine = DenizenEngine.current();
+        return engine == null ? null : engine.implementation;
     }
 
     public static void register(ScriptEvent evt) {
@@ -109,52 +140,100 @@ public class Denizen2Core {
         scriptTypeGetters.put(type, func);
     }
 
-    public static List<CommandQueue> queues = new ArrayList<>();
+    public static List<CommandQueue> getQueues() {
+        return DenizenEngine.current().allQueues();
+    }
 
+    public static long getCurrentTick() {
+        return DenizenEngine.current().currentTick;
+    }
+
+    public static double getTotalTime() {
+        return DenizenEngine.current().totalTime;
+    }
+
+    /**
+     * A read-only view of {@link #getQueues()} for the engine running on the calling thread.
+     * @deprecated Use {@link #getQueues()}.
+     */
+    @Deprecated
+    public static List<CommandQueue> queues = new AbstractList<CommandQueue>() {
+
+        @Override
+        public CommandQueue get(int index) {
+            return getQueues().get(index);
+        }
+
+        @Override
+        public int size() {
+            return getQueues().size();
+        }
+
+        @Override
+        public Iterator<CommandQueue> iterator() {
+            return Collections.unmodifiableList(getQueues()).iterator();
+        }
+    };
+
+    /**
+     * The default engine's last queue ID, as of the start or end of its latest tick. Changing it has no effect.
+     * @deprecated Use {@link DenizenEngine#cqID} on the engine.
+     */
+    @Deprecated
     public static long cqID = 0;
 
+    /**
+     * The default engine's total time, as of the start or end of its latest tick. Changing it has no effect.
+     * @deprecated Use {@link #getTotalTime()}.
+     */
+    @Deprecated
     public static double totalTime;
 
-    static double pTotal;
-
+    /**
+     * The default engine's current tick, as of the start or end of its latest tick. Changing it has no effect.
+     * @deprecated Use {@link #getCurrentTick()}.
+     */
+    @Deprecated
     public static long currentTick = 0;
 
+    /**
+     * Copies the default engine's counters into the deprecated static fields.
+     */
+    static void mirrorDefaultEngine(DenizenEngine engine) {
+        cqID = engine.cqID;
+        totalTime = engine.totalTime;
+        currentTick = engine.currentTick;
+    }
+
+    /**
+     * Runs one tick of the default engine.
+     */
     public static void tick(double delta) {
-        currentTick++;
-        for (int i = 0; i < queues.size(); i++) {
-            CommandQueue q = queues.get(i);
-            if (q.run(delta)) {
-                queues.remove(i);
-                i--;
-            }
-        }
-        totalTime += delta;
-        while (pTotal + 1.0 < totalTime) {
-            deltaTime.call((long) Math.floor(totalTime));
-            pTotal += 1.0;
-        }
+        defaultEngine.tick(delta);
     }
 
     private static List<DenizenAddon> addons = new ArrayList<>();
 
     public static void init(Denizen2Implementation impl) {
-        // Track this implementation value
-        implementation = impl;
+        // Create the default engine for this implementation
+        defaultEngine = new DenizenEngine(impl);
+        // Make engine activity visible to Java Flight Recorder, where available
+        FlightRecording.init();
         // Enforce a reasonable locale on the machine - to prevent format errors
         // Note that US is chosen primarily as it is:
         // - the most likely to be used by a user of Denizen2 anyway (All Denizen2 info is EN-US)
         // - the least likely to screw with commonly accepted (international) formatting
         // This also helps ensure related text will be in English, to ensure all Denizen2 helpers can read output from foreign servers.
-        if (implementation.enforceLocale()) {
+        if (impl.enforceLocale()) {
             Locale.setDefault(Locale.US);
         }
         // Clear any old data
         commands.clear();
         tagBases.clear();
-        currentScripts.clear();
         scriptTypeGetters.clear();
         // Common Commands
         register(new EchoCommand());
+        register(new ProfileCommand());
         register(new ReloadCommand());
         // File Commands
         register(new YamlCommand());
@@ -175,6 +254,7 @@ public class Denizen2Core {
         register(new RepeatCommand());
         register(new RequireCommand());
         register(new ResumeCommand());
+        register(new RunAllCommand());
         register(new RunCommand());
         register(new StopCommand());
         register(new UndefineCommand());
@@ -195,6 +275,7 @@ public class Denizen2Core {
         register(new NumberTagBase());
         register(new ProcedureTagBase());
         register(new QueueTagBase());
+        register(new SaveBinaryTagBase());
         register(new SaveTagBase());
         register(new ScriptTagBase());
         register(new SystemTagBase());
@@ -226,19 +307,35 @@ public class Denizen2Core {
         customSaveLoaders.put("TimeTag", TimeTag::getFor);
         customSaveLoaders.put("YamlTag", YamlTag::getFor);
         customSaveLoaders.put("SystemTag", (e, s) -> new SystemTagBase.SystemTag());
+        customSaveLoaders.put(BinarySaveCodec.SAVE_TYPE, BinarySaveCodec::fromBase64);
+        // Binary Type Loaders
+        BinarySaveCodec.register(1, "NullTag", (o, out) -> { }, (e, in) -> NullTag.NULL);
+        BinarySaveCodec.register(2, "BooleanTag", (o, out) -> out.writeBoolean(((BooleanTag) o).getInternal()),
+                (e, in) -> BooleanTag.getForBoolean(in.get() != 0));
+        BinarySaveCodec.register(3, "IntegerTag", (o, out) -> BinarySaveCodec.writeVarLong(out, ((IntegerTag) o).getInternal()),
+                (e, in) -> new IntegerTag(BinarySaveCodec.readVarLong(in)));
+        BinarySaveCodec.register(4, "NumberTag", (o, out) -> out.writeDouble(((NumberTag) o).getInternal()),
+                (e, in) -> new NumberTag(in.getDouble()));
+        BinarySaveCodec.register(5, "TextTag", (o, out) -> BinarySaveCodec.writeString(out, ((TextTag) o).getInternal()),
+                (e, in) -> new TextTag(BinarySaveCodec.readString(in)));
+        BinarySaveCodec.register(6, "DurationTag", (o, out) -> out.writeDouble(((DurationTag) o).getInternal()),
+                (e, in) -> new DurationTag(in.getDouble()));
+        BinarySaveCodec.register(7, "ListTag", ListTag::writeBinary, ListTag::readBinary);
+        BinarySaveCodec.register(8, "MapTag", MapTag::writeBinary, MapTag::readBinary);
     }
 
-    public static final HashMap<String, Function2<Action<String>, String, AbstractTagObject>> customSaveLoaders = new HashMap<>();
+    public static final HashMap<String, Function2<Action<String>, String, AbstractTagObject>> customSaveLoaders = new SnapshotMap<>();
 
     public static AbstractTagObject loadFromSaved(Action<String> error, String str) {
         List<String> dat = CoreUtilities.split(str, '@', 2);
         String typed = dat.get(0);
-        if (!customSaveLoaders.containsKey(typed)) {
+        Function2<Action<String>, String, AbstractTagObject> loader = customSaveLoaders.get(typed);
+        if (loader == null) {
             error.run("No save loader for the specified type: " + ColorSet.emphasis + typed + ColorSet.warning + "! "
                     + "May be invalid input to a saves loader?");
             return NullTag.NULL;
         }
-        return customSaveLoaders.get(typed).apply(error, dat.get(1));
+        return loader.apply(error, dat.get(1));
     }
 
     private static ScriptReloadEvent scriptReload = null;
@@ -247,59 +344,124 @@ public class Denizen2Core {
 
     private static DeltaTimeEvent deltaTime = null;
 
+    /**
+     * Reloads all scripts, recompiling every script file.
+     */
     public static void reload() {
-        implementation.preReload();
-        currentScripts.clear();
-        ScriptEvent.currentWorldScripts.clear();
-        implementation.midLoad();
-        load();
-        implementation.reload();
+        DenizenEngine.current().reload(false);
+    }
+
+    /**
+     * Reloads all scripts, only recompiling script files that have changed since they were last loaded.
+     * Unchanged files keep their already-compiled scripts, and only events of changed world scripts are re-indexed.
+     */
+    public static void reloadChanged() {
+        DenizenEngine.current().reload(true);
+    }
+
+    /**
+     * Reloads scripts without pausing the main thread for the load: the new scripts are read and compiled
+     * in the background, then swapped in on a later tick. Until then, the current scripts keep running as normal.
+     * Queues already running when the swap happens keep using the scripts they started with.
+     * May be called from any thread, and reloads the default engine unless another engine is running on that thread.
+     */
+    public static void reloadInBackground(boolean onlyChanged) {
+        DenizenEngine.current().reloadInBackground(onlyChanged);
+    }
+
+    /**
+     * Reloads in the background like reloadInBackground(true), but only checks the given changed, added, or removed script files.
+     * May be called from any thread.
+     */
+    public static void reloadInBackground(Collection<File> changedFiles) {
+        DenizenEngine.current().reloadInBackground(changedFiles);
+    }
+
+    /**
+     * Called after the default engine's scripts are reloaded.
+     */
+    static void scriptsReloaded() {
         reloadAddons();
         scriptReload.call();
     }
 
-    private static void reloadAddons() {
-        for (DenizenAddon addon : addons) {
-            addon.reload();
+    /**
+     * Called once per second of the default engine's total time.
+     */
+    static void secondPassed(long totalSeconds) {
+        deltaTime.call(totalSeconds);
+    }
+
+    private static ScriptFolderWatcher scriptWatcher = null;
+
+    /**
+     * Starts watching the scripts folder, automatically reloading changed script files.
+     * Changes are gathered until none have happened for the given number of milliseconds,
+     * then the changed files (only) are reloaded in the background, and swapped in on a later tick.
+     */
+    public static void startScriptWatcher(long debounceMillis) {
+        stopScriptWatcher();
+        try {
+            scriptWatcher = new ScriptFolderWatcher(getImplementation().getScriptsFolder(), debounceMillis);
+            scriptWatcher.start();
+        }
+        catch (IOException ex) {
+            Debug.error("Failed to start watching the scripts folder!");
+            Debug.exception(ex);
+            scriptWatcher = null;
         }
     }
 
-    private static void loadSection(String scriptName, YAMLConfiguration section) {
-        String type = CoreUtilities.toLowerCase(section.getString("type", "_not set_"));
-        Function2<String, YAMLConfiguration, CommandScript> getter = scriptTypeGetters.get(type);
-        if (getter == null) {
-            Debug.error("Unknown type '" + ColorSet.emphasis + type + ColorSet.warning + "' for script '" + ColorSet.emphasis + scriptName
-                    + ColorSet.warning + "' ... see documentation regarding valid script types!");
-            return;
+    public static void stopScriptWatcher() {
+        if (scriptWatcher != null) {
+            scriptWatcher.stop();
+            scriptWatcher = null;
         }
-        CommandScript script = getter.apply(scriptName, section);
-        if (script.init()) {
-            getImplementation().outputGood("Loaded script '" + ColorSet.emphasis + scriptName + ColorSet.good + "'");
-            currentScripts.put(scriptName, script);
+    }
+
+    private static TickWatchdog tickWatchdog = null;
+
+    /**
+     * Starts watching for ticks that run longer than the given number of milliseconds.
+     * Long ticks are reported with the running queue's script-level stack, and optionally the Java stack,
+     * and the queue the tick is running from its queue list can optionally be asked to yield or stop at its next command.
+     */
+    public static void startTickWatchdog(long thresholdMillis, boolean javaStacks, TickWatchdog.Response response) {
+        stopTickWatchdog();
+        tickWatchdog = new TickWatchdog(thresholdMillis, javaStacks, response);
+        tickWatchdog.start();
+    }
+
+    public static void stopTickWatchdog() {
+        if (tickWatchdog != null) {
+            tickWatchdog.stop();
+            tickWatchdog = null;
         }
-        else {
-            Debug.error("Failed to load script '" + ColorSet.emphasis + scriptName + ColorSet.warning + "'! See documentation regarding "
-                    + "scripts of type " + ColorSet.emphasis + type);
+    }
+
+    private static void reloadAddons() {
+        for (DenizenAddon addon : addons) {
+            addon.reload();
         }
     }
 
+    /**
+     * Loads scripts from the given contents, as if they were a script file with the given name, into the current script generation.
+     */
     public static void loadFile(String fileName, String contents) {
-        try {
-            YAMLConfiguration config = YAMLConfiguration.load(ScriptHelper.clearComments(contents));
-            if (config == null) {
-                Debug.error("Invalid YAML for script '" + ColorSet.emphasis + fileName + ColorSet.warning
-                        + "'... the script file may be empty, or unable to load entirely. If it's intentionally empty, "
-                        + "change its extension to '.disable'!");
-                return;
+        ScriptFileLoad file = new ScriptFileLoad(fileName, contents);
+        DenizenEngine engine = DenizenEngine.current();
+        ScriptGeneration generation = engine.generation;
+        int worldScripts = generation.worldScripts.size();
+        file.read();
+        file.construct();
+        file.compile(null);
+        file.register(generation);
+        if (engine.isDefault() && generation.worldScripts.size() != worldScripts) {
+            for (ScriptEvent event : events) {
+                event.reinit(Collections.emptyList(), generation.worldScripts.subList(worldScripts, generation.worldScripts.size()));
+                generation.usages.put(event, event.usages);
             }
-            Set<StringHolder> strs = config.getKeys(false);
-            for (StringHolder strh : strs) {
-                loadSection(strh.low, config.getConfigurationSection(strh.str));
-            }
-        }
-        catch (Exception ex) {
-            Debug.error("Failed to load script: " + ColorSet.emphasis + fileName);
-            Debug.exception(ex);
         }
     }
 
@@ -311,58 +473,14 @@ public class Denizen2Core {
         else {
             addons.addAll(AddonLoader.loadAddons(addonsFolder));
         }
-        load();
+        defaultEngine.loadScripts();
         systemLoad.call();
     }
 
-    private static void load() {
-        File folder = getImplementation().getScriptsFolder();
-        try {
-            if (!folder.exists()) {
-                Debug.error("Scripts folder non-existent! Something may have gone wrong during engine setup. Check file permissions!");
-                return;
-            }
-            Stream<Path> paths = Files.walk(folder.toPath(), FileVisitOption.FOLLOW_LINKS);
-            Iterator<Path> pathi = paths.iterator();
-            while (pathi.hasNext()) {
-                Path p = pathi.next();
-                if (Files.isDirectory(p)) {
-                    continue;
-                }
-                if (!CoreUtilities.toLowerCase(p.toString()).endsWith(".dsc")) {
-                    if (!CoreUtilities.toLowerCase(p.toString()).endsWith(".disable")) {
-                        Debug.error("File with path in scripts folder '" + ColorSet.emphasis + p.toString() + ColorSet.warning + "' is invalid. "
-                                + "Script files must end in .dsc, ignored files must end in .disable");
-                    }
-                    continue;
-                }
-                File f = p.toFile();
-                if (f.exists() && !f.isDirectory()) {
-                    FileInputStream fis = new FileInputStream(f);
-                    loadFile(f.getName(), CoreUtilities.streamToString(fis));
-                    fis.close();
-                }
-            }
-        }
-        catch (IOException ex) {
-            Debug.exception(ex);
-        }
-        for (ScriptEvent event : events) {
-            event.init();
-        }
-        for (WorldScript script : ScriptEvent.currentWorldScripts) {
-            Set<StringHolder> evts = script.contents.getConfigurationSection("events").getKeys(false);
-            for (StringHolder evt : evts) {
-                if (!script.eventsConfirmed.contains(evt.str)) {
-                    Debug.error("Script event went unmatched: " + ColorSet.emphasis + script.title + ".events." + evt.str
-                            + ColorSet.warning + "!");
-                }
-            }
-        }
-    }
-
     public static void unload() {
         // TODO: unload other things???
+        stopScriptWatcher();
+        stopTickWatchdog();
         disableAddons();
     }
 
@@ -489,7 +607,9 @@ public class Denizen2Core {
                             variable = new Argument();
                         }
                         key = split.get(x);
-                        bits.add(new TagBit(key, variable));
+                        TagBit tagBit = new TagBit(key, variable);
+                        RegexCache.tryPrecompile(tagBit);
+                        bits.add(tagBit);
                     }
                     TagBit[] tbits = new TagBit[bits.size()];
                     TagArgumentBit tab = new TagArgumentBit(bits.toArray(tbits));
@@ -546,7 +666,7 @@ public class Denizen2Core {
     }
 
     public static void dumpDebug() {
-        for (Map.Entry<String, CommandScript> script : currentScripts.entrySet()) {
+        for (Map.Entry<String, CommandScript> script : getCurrentScripts().entrySet()) {
             Debug.info("Script: " + script.getKey() + " / " + script.getValue().title);
             Debug.info("Debug mode: " + script.getValue().getDebugMode());
             Debug.info("YAML Contents: " + script.getValue().contents.saveToString());
@@ -10,10 +10,20 @@ import java.io.File;
  */
 public abstract class Denizen2Implementation {
 
+    /**
+     * Called when reloading, before any new script is initialized or registered. The previous scripts are still in use.
+     */
     public abstract void preReload();
 
+    /**
+     * Called right after preReload, before any new script is initialized or registered.
+     * The previous scripts stay in use until the new ones are swapped in, rather than being cleared first.
+     */
     public abstract void midLoad();
 
+    /**
+     * Called when reloading, once the new scripts are initialized, registered, and in use.
+     */
     public abstract void reload();
 
     public abstract void outputException(Exception ex); // TODO: Throwable?
@@ -41,4 +51,13 @@ public abstract class Denizen2Implementation {
     public abstract File getScriptDataFolder();
 
     public abstract boolean isSafePath(String file);
+
+    /**
+     * Returns the folder to store compiled copies of scripts in, to speed up later loads.
+     * Return null to disable the compiled script cache.
+     */
+    public File getScriptCacheFolder() {
+        File parent = getScriptsFolder().getAbsoluteFile().getParentFile();
+        return parent == null ? null : new File(parent, "script_cache");
+    }
 }
@@ -0,0 +1,332 @@
+package com.denizenscript.denizen2core;
+
+import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.commands.QueueFuture;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.debugging.TickWatchdog;
+import com.denizenscript.denizen2core.utilities.metrics.Metrics;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One engine instance: its implementation, scripts, queues, loaded YAML files, and tick clock.
+ * Registries (commands, tag bases, tag handlers, script types, script events) are shared by all engines, see Denizen2Core.
+ * Several engines may run side by side, each ticked on its own thread.
+ * The static Denizen2Core API works on whichever engine is running on the calling thread, or else the default engine.
+ * Script events and addons only work with the default engine.
+ */
+public class DenizenEngine {
+
+    private final static ThreadLocal<DenizenEngine> running = new ThreadLocal<>();
+
+    /**
+     * Returns the engine running on the calling thread, or the default engine if none is.
+     */
+    public static DenizenEngine current() {
+        DenizenEngine engine = running.get();
+        return engine != null ? engine : Denizen2Core.getDefaultEngine();
+    }
+
+    private final static ExecutorService reloadExecutor = Executors.newSingleThreadExecutor((run) -> {
+        Thread thread = new Thread(run, "Denizen2 Script Reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public final Denizen2Implementation implementation;
+
+    /**
+     * The script generation new queues and script lookups use.
+     */
+    public volatile ScriptGeneration generation = new ScriptGeneration(-1);
+
+    /**
+     * The queues each tick runs.
+     */
+    public final List<CommandQueue> queues = new ArrayList<>();
+
+    /**
+     * Queues waiting on an unfinished QueueFuture, which ticks skip until the future finishes.
+     */
+    private final Set<CommandQueue> blockedQueues = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Futures finished (from any thread) since the last tick, whose queues may continue.
+     */
+    private final ConcurrentLinkedQueue<QueueFuture> finishedFutures = new ConcurrentLinkedQueue<>();
+
+    private final PriorityQueue<QueueFuture> timeouts = new PriorityQueue<>(Comparator.comparingDouble((future) -> future.deadline));
+
+    /**
+     * YAML files loaded by scripts, by lowercase ID. Written by the YAML command, read by tags from any thread.
+     */
+    public final ConcurrentHashMap<String, Object> filesLoadedByScripts = new ConcurrentHashMap<>();
+
+    public long cqID = 0;
+
+    public long currentTick = 0;
+
+    public double totalTime = 0;
+
+    private double pTotal = 0;
+
+    /**
+     * Script files reported changed by reloadInBackground that no applied reload has read yet,
+     * by path, with the count of reports at the time each was last reported.
+     */
+    private final Map<String, Long> changedScriptFiles = new HashMap<>();
+
+    private long scriptFileChanges = 0;
+
+    /**
+     * A generation being built in the background, waiting for the tick thread to run its next stage.
+     */
+    private final AtomicReference<ScriptGeneration> builtGeneration = new AtomicReference<>();
+
+    public DenizenEngine(Denizen2Implementation implementation) {
+        this.implementation = implementation;
+    }
+
+    /**
+     * Returns all live queues, including those waiting on a future.
+     */
+    public List<CommandQueue> allQueues() {
+        List<CommandQueue> all = new ArrayList<>(queues.size() + blockedQueues.size());
+        all.addAll(queues);
+        all.addAll(blockedQueues);
+        return all;
+    }
+
+    /**
+     * Called by a QueueFuture (on any thread) when it finishes, to have its queue continue on the next tick.
+     */
+    public void futureFinished(QueueFuture future) {
+        finishedFutures.add(future);
+    }
+
+    /**
+     * Has the given future time out at its deadline. Must be called on the tick thread.
+     */
+    public void addTimeout(QueueFuture future) {
+        timeouts.add(future);
+    }
+
+    public boolean isDefault() {
+        return Denizen2Core.getDefaultEngine() == this;
+    }
+
+    /**
+     * Makes this the engine of the calling thread, returning the engine it had before, to pass to exit.
+     */
+    public DenizenEngine enter() {
+        DenizenEngine previous = running.get();
+        running.set(this);
+        return previous;
+    }
+
+    public static void exit(DenizenEngine previous) {
+        if (previous == null) {
+            running.remove();
+        }
+        else {
+            running.set(previous);
+        }
+    }
+
+    /**
+     * Runs the given action with this as the engine of the calling thread.
+     */
+    public void runWithin(Runnable action) {
+        DenizenEngine previous = enter();
+        try {
+            action.run();
+        }
+        finally {
+            exit(previous);
+        }
+    }
+
+    /**
+     * Loads all scripts for the first time.
+     */
+    public void loadScripts() {
+        runWithin(() -> ScriptGeneration.build(generation, false).publish(this));
+    }
+
+    /**
+     * Reloads all scripts, optionally only recompiling script files that have changed since they were last loaded.
+     */
+    public void reload(boolean onlyChanged) {
+        runWithin(() -> {
+            long changes = fileChangesSoFar();
+            ScriptGeneration built = ScriptGeneration.read(generation, onlyChanged);
+            built.fileChangesRead = changes;
+            built.construct();
+            built.compile();
+            applyReload(built);
+        });
+    }
+
+    /**
+     * Reloads scripts in the background, swapping them in on a later tick. May be called from any thread.
+     * Script files are read and compiled on a background thread, while script objects are constructed, initialized,
+     * and registered on this engine's tick thread.
+     */
+    public void reloadInBackground(boolean onlyChanged) {
+        reloadExecutor.execute(() -> runWithin(() -> {
+            long changes = fileChangesSoFar();
+            ScriptGeneration read = ScriptGeneration.read(generation, onlyChanged);
+            read.fileChangesRead = changes;
+            builtGeneration.set(read);
+        }));
+    }
+
+    private long fileChangesSoFar() {
+        synchronized (changedScriptFiles) {
+            return scriptFileChanges;
+        }
+    }
+
+    /**
+     * Reloads the given changed, added, or removed script files in the background, swapping them in on a later tick,
+     * without checking any other script files. May be called from any thread.
+     */
+    public void reloadInBackground(Collection<File> changed) {
+        synchronized (changedScriptFiles) {
+            scriptFileChanges++;
+            for (File file : changed) {
+                changedScriptFiles.put(file.getPath(), scriptFileChanges);
+            }
+        }
+        reloadExecutor.execute(() -> runWithin(() -> {
+            Set<String> paths;
+            long changes;
+            synchronized (changedScriptFiles) {
+                paths = new HashSet<>(changedScriptFiles.keySet());
+                changes = scriptFileChanges;
+            }
+            ScriptGeneration read = ScriptGeneration.read(generation, paths);
+            read.fileChangesRead = changes;
+            builtGeneration.set(read);
+        }));
+    }
+
+    private void compileInBackground(ScriptGeneration building) {
+        reloadExecutor.execute(() -> runWithin(() -> {
+            building.compile();
+            // A newer reload that started meanwhile replaces this one.
+            builtGeneration.compareAndSet(null, building);
+        }));
+    }
+
+    /**
+     * Finishes a compiled generation and swaps it in, between the implementation's reload hooks.
+     */
+    private void applyReload(ScriptGeneration built) {
+        synchronized (changedScriptFiles) {
+            // Changes reported after the generation was read still need reading.
+            changedScriptFiles.values().removeIf((changes) -> changes <= built.fileChangesRead);
+        }
+        Object recordingEvent = FlightRecording.reloads ? FlightRecording.beginReload() : null;
+        implementation.preReload();
+        implementation.midLoad();
+        built.finish();
+        built.publish(this);
+        implementation.reload();
+        if (isDefault()) {
+            Denizen2Core.scriptsReloaded();
+        }
+        if (recordingEvent != null) {
+            FlightRecording.endReload(recordingEvent, "apply", built.onlyChanged, built.scripts.size());
+        }
+    }
+
+    /**
+     * Runs one tick of this engine: swaps in any scripts reloaded in the background, and runs all queues.
+     * Must always be called from the same thread.
+     */
+    public void tick(double delta) {
+        long tickStart = System.nanoTime();
+        boolean isDefault = isDefault();
+        DenizenEngine previous = enter();
+        try {
+            currentTick++;
+            if (isDefault) {
+                Denizen2Core.mirrorDefaultEngine(this);
+                TickWatchdog.tickStarted(currentTick);
+                if (currentTick % 20 == 0) {
+                    FlightRecording.refresh();
+                }
+            }
+            ScriptGeneration built = builtGeneration.getAndSet(null);
+            if (built != null) {
+                if (built.basedOn != generation.id) {
+                    // Another reload happened while this one was building: start over from the newer scripts.
+                    reloadInBackground(true);
+                }
+                else if (built.getStage() == ScriptGeneration.Stage.READ) {
+                    built.construct();
+                    compileInBackground(built);
+                }
+                else {
+                    applyReload(built);
+                }
+            }
+            while (!timeouts.isEmpty() && timeouts.peek().deadline <= totalTime) {
+                timeouts.poll().timeOut();
+            }
+            QueueFuture finished;
+            while ((finished = finishedFutures.poll()) != null) {
+                if (blockedQueues.remove(finished.queue)) {
+                    queues.add(finished.queue);
+                }
+            }
+            for (int i = 0; i < queues.size(); i++) {
+                CommandQueue q = queues.get(i);
+                if (isDefault) {
+                    TickWatchdog.tickQueueStarted(q);
+                }
+                boolean done;
+                try {
+                    done = q.run(delta);
+                }
+                finally {
+                    if (isDefault) {
+                        TickWatchdog.tickQueueStopped(q);
+                    }
+                }
+                if (done) {
+                    queues.remove(i);
+                    i--;
+                }
+                else if (q.isBlocked()) {
+                    queues.remove(i);
+                    i--;
+                    blockedQueues.add(q);
+                }
+            }
+            totalTime += delta;
+            while (pTotal + 1.0 < totalTime) {
+                if (isDefault) {
+                    Denizen2Core.secondPassed((long) Math.floor(totalTime));
+                }
+                pTotal += 1.0;
+            }
+        }
+        finally {
+            exit(previous);
+            if (isDefault) {
+                Denizen2Core.mirrorDefaultEngine(this);
+                TickWatchdog.tickEnded();
+                Metrics.tickTime.recordSince(tickStart);
+            }
+        }
+    }
+}
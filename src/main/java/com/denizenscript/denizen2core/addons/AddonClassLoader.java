@@ -3,31 +3,80 @@ package com.denizenscript.denizen2core.addons;
 import com.denizenscript.denizen2core.Denizen2Core;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
 
 final class AddonClassLoader extends URLClassLoader {
 
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
     private final AddonInfo addonInfo;
     private final File dataFolder;
-    private final DenizenAddon addon;
+    private final Set<String> entries;
+    private DenizenAddon addon;
     private boolean initialized;
 
-    public AddonClassLoader(ClassLoader parent, AddonInfo addonInfo, File dataFolder, File file)
-            throws MalformedURLException, ClassNotFoundException, IllegalAccessException, InstantiationException {
+    /**
+     * Prepares the class loader for an addon jar. The given entry names must list every entry in the jar.
+     * This does not load any classes: call createAddon() for that.
+     */
+    public AddonClassLoader(ClassLoader parent, AddonInfo addonInfo, File dataFolder, File file, Set<String> jarEntries)
+            throws MalformedURLException {
         super(new URL[]{file.toURI().toURL()}, parent);
-        Class main = Class.forName(addonInfo.getMain(), true, this);
-        Class addonClass = main.asSubclass(DenizenAddon.class);
         this.addonInfo = addonInfo;
         this.dataFolder = dataFolder;
+        this.entries = jarEntries;
+    }
+
+    public DenizenAddon createAddon() throws ClassNotFoundException, IllegalAccessException, InstantiationException {
+        Class main = Class.forName(addonInfo.getMain(), true, this);
+        Class addonClass = main.asSubclass(DenizenAddon.class);
         this.addon = (DenizenAddon) addonClass.newInstance();
+        return addon;
     }
 
     public DenizenAddon getAddon() {
         return addon;
     }
 
+    /**
+     * Returns whether the addon jar contains the named entry, without searching the jar itself.
+     */
+    public boolean hasEntry(String name) {
+        return entries.contains(name);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        if (!entries.contains(name.replace('.', '/').concat(".class"))) {
+            throw new ClassNotFoundException(name);
+        }
+        return super.findClass(name);
+    }
+
+    @Override
+    public URL findResource(String name) {
+        if (!entries.contains(name)) {
+            return null;
+        }
+        return super.findResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        if (!entries.contains(name)) {
+            return Collections.emptyEnumeration();
+        }
+        return super.findResources(name);
+    }
+
     void initialize(DenizenAddon addon) {
         if (addon.getClass().getClassLoader() != this) {
             throw new IllegalStateException("Can't initialize addon outside of its own AddonClassLoader!");
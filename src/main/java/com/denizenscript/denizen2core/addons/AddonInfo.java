@@ -4,6 +4,8 @@ import com.denizenscript.denizen2core.utilities.CoreUtilities;
 import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
 
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 
 public class AddonInfo {
 
@@ -12,6 +14,8 @@ public class AddonInfo {
     private final String name;
     private final String version;
     private final String main;
+    private final List<String> dependencies;
+    private final List<String> softDependencies;
 
     public AddonInfo(InputStream inputStream) throws IllegalStateException {
         this.yamlConfiguration = YAMLConfiguration.load(CoreUtilities.streamToString(inputStream));
@@ -21,6 +25,17 @@ public class AddonInfo {
         this.name = yamlConfiguration.getString("name");
         this.version = yamlConfiguration.getString("version");
         this.main = yamlConfiguration.getString("main");
+        this.dependencies = getNameList("depend");
+        this.softDependencies = getNameList("softdepend");
+    }
+
+    private List<String> getNameList(String key) {
+        List<String> list = yamlConfiguration.getStringList(key);
+        if (list == null) {
+            String single = yamlConfiguration.getString(key);
+            return single == null ? Collections.emptyList() : Collections.singletonList(single);
+        }
+        return Collections.unmodifiableList(list);
     }
 
     public String getName() {
@@ -34,4 +49,19 @@ public class AddonInfo {
     public String getMain() {
         return main;
     }
+
+    /**
+     * Returns the names of addons that must be enabled before this one, from the "depend" key in addon.yml.
+     * If any of them are missing, this addon will not be enabled.
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Returns the names of addons that should be enabled before this one if they are present, from the "softdepend" key in addon.yml.
+     */
+    public List<String> getSoftDependencies() {
+        return softDependencies;
+    }
 }
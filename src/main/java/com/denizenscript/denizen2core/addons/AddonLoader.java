@@ -9,55 +9,177 @@ import java.io.InputStream;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
 
 public class AddonLoader {
 
+    /**
+     * An addon jar that has been read and had its class loader made, but has not yet had any classes loaded.
+     */
+    private static class FoundAddon {
+
+        public final File jarFile;
+
+        public final List<Runnable> output = new ArrayList<>();
+
+        public AddonInfo addonInfo = null;
+
+        public AddonClassLoader classLoader = null;
+
+        public FoundAddon(File jar) {
+            jarFile = jar;
+        }
+    }
+
+    /**
+     * Loads and enables all addons in the folder.
+     * Jars are read and prepared in parallel. Addons are then created and enabled one at a time,
+     * dependencies first, and otherwise in order of name.
+     */
     public static List<DenizenAddon> loadAddons(File addonsFolder) {
         List<DenizenAddon> addons = new ArrayList<>();
+        List<Path> jars = new ArrayList<>();
         try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(addonsFolder.toPath(), path -> path.toString().endsWith(".jar"))) {
             for (Path jarFile : directoryStream) {
-                DenizenAddon addon = loadAddon(jarFile.toFile());
-                if (addon != null) {
-                    AddonInfo addonInfo = addon.getAddonInfo();
-                    try {
-                        Debug.info("Attempting to enable addon " + addonInfo.getName() + " " + addonInfo.getVersion() + "...");
-                        addon.enable();
-                        Debug.good("Successfully loaded " + addonInfo.getName() + " " + addonInfo.getVersion() + "!");
-                    }
-                    catch (Exception e) {
-                        Debug.error("Failed to enable addon '" + addonInfo.getName() + " " + addonInfo.getVersion());
-                        Debug.exception(e);
-                        continue;
-                    }
-                    addons.add(addon);
-                }
+                jars.add(jarFile);
             }
         }
         catch (IOException e) {
             Debug.error("Failed to load addons in " + addonsFolder.toString());
             Debug.exception(e);
+            return addons;
+        }
+        Collections.sort(jars);
+        List<FoundAddon> found = jars.parallelStream().map((path) -> findAddon(path.toFile())).collect(Collectors.toList());
+        Map<String, FoundAddon> byName = new TreeMap<>();
+        for (FoundAddon addon : found) {
+            Debug.replay(addon.output);
+            if (addon.classLoader == null) {
+                continue;
+            }
+            String name = addon.addonInfo.getName();
+            if (byName.containsKey(name)) {
+                Debug.error("Ignoring addon " + name + " from " + addon.jarFile.getName() + ": an addon with that name was already found in "
+                        + byName.get(name).jarFile.getName() + "!");
+                continue;
+            }
+            byName.put(name, addon);
+        }
+        for (FoundAddon found2 : sortByDependencies(byName)) {
+            AddonInfo addonInfo = found2.addonInfo;
+            DenizenAddon addon;
+            try {
+                addon = found2.classLoader.createAddon();
+            }
+            catch (Exception e) {
+                Debug.error("Failed to load addon from " + found2.jarFile.getName());
+                Debug.exception(e);
+                continue;
+            }
+            try {
+                Debug.info("Attempting to enable addon " + addonInfo.getName() + " " + addonInfo.getVersion() + "...");
+                addon.enable();
+                Debug.good("Successfully loaded " + addonInfo.getName() + " " + addonInfo.getVersion() + "!");
+            }
+            catch (Exception e) {
+                Debug.error("Failed to enable addon '" + addonInfo.getName() + " " + addonInfo.getVersion());
+                Debug.exception(e);
+                continue;
+            }
+            addons.add(addon);
         }
         return addons;
     }
 
-    private static DenizenAddon loadAddon(File jarFile) {
+    /**
+     * Orders addons so each comes after everything it depends on, with ties broken by name.
+     * Addons with missing or circular hard dependencies are left out.
+     */
+    private static List<FoundAddon> sortByDependencies(Map<String, FoundAddon> byName) {
+        List<FoundAddon> result = new ArrayList<>();
+        Set<String> done = new HashSet<>();
+        Set<String> failed = new HashSet<>();
+        for (String name : byName.keySet()) {
+            visit(name, byName, done, failed, new LinkedHashSet<>(), result);
+        }
+        return result;
+    }
+
+    private static boolean visit(String name, Map<String, FoundAddon> byName, Set<String> done, Set<String> failed,
+                                 LinkedHashSet<String> visiting, List<FoundAddon> result) {
+        if (done.contains(name)) {
+            return true;
+        }
+        if (failed.contains(name)) {
+            return false;
+        }
+        FoundAddon addon = byName.get(name);
+        if (!visiting.add(name)) {
+            Debug.error("Not enabling addon " + name + ": circular dependency " + String.join(" -> ", visiting) + " -> " + name);
+            failed.add(name);
+            return false;
+        }
+        boolean success = true;
+        for (String dependency : addon.addonInfo.getDependencies()) {
+            if (!byName.containsKey(dependency)) {
+                Debug.error("Not enabling addon " + name + ": missing dependency " + dependency + "!");
+                success = false;
+            }
+            else if (!visit(dependency, byName, done, failed, visiting, result)) {
+                if (!failed.contains(name)) {
+                    Debug.error("Not enabling addon " + name + ": dependency " + dependency + " could not be enabled!");
+                }
+                success = false;
+            }
+        }
+        for (String dependency : addon.addonInfo.getSoftDependencies()) {
+            if (byName.containsKey(dependency) && !visiting.contains(dependency)) {
+                visit(dependency, byName, done, failed, visiting, result);
+            }
+        }
+        visiting.remove(name);
+        if (!success) {
+            failed.add(name);
+            return false;
+        }
+        done.add(name);
+        result.add(addon);
+        return true;
+    }
+
+    /**
+     * Reads an addon jar's addon.yml and entry list, and prepares its class loader. May run on any thread.
+     */
+    private static FoundAddon findAddon(File jarFile) {
+        FoundAddon found = new FoundAddon(jarFile);
+        Debug.startBuffering(found.output);
         try (JarFile jar = new JarFile(jarFile)) {
             JarEntry addonInfoEntry = jar.getJarEntry("addon.yml");
+            if (addonInfoEntry == null) {
+                throw new IllegalStateException("Missing addon.yml file!");
+            }
             try (InputStream is = jar.getInputStream(addonInfoEntry)) {
-                AddonInfo addonInfo = new AddonInfo(is);
-                File dataFolder = new File(Denizen2Core.getImplementation().getAddonsFolder(), addonInfo.getName());
-                AddonClassLoader classLoader = new AddonClassLoader(AddonLoader.class.getClassLoader(), addonInfo, dataFolder, jarFile);
-                return classLoader.getAddon();
+                found.addonInfo = new AddonInfo(is);
             }
+            Set<String> entries = new HashSet<>();
+            Enumeration<JarEntry> jarEntries = jar.entries();
+            while (jarEntries.hasMoreElements()) {
+                entries.add(jarEntries.nextElement().getName());
+            }
+            File dataFolder = new File(Denizen2Core.getImplementation().getAddonsFolder(), found.addonInfo.getName());
+            found.classLoader = new AddonClassLoader(AddonLoader.class.getClassLoader(), found.addonInfo, dataFolder, jarFile, entries);
         }
         catch (Exception e) {
             Debug.error("Failed to load addon from " + jarFile.getName());
             Debug.exception(e);
-            return null;
+            found.classLoader = null;
+        }
+        finally {
+            Debug.stopBuffering();
         }
+        return found;
     }
 }
@@ -40,6 +40,38 @@ public class Argument {
         bits.add(bit);
     }
 
+    /**
+     * Returns whether this argument is entirely literal text (IE, contains no tags).
+     */
+    public boolean isConstant() {
+        for (ArgumentBit bit : bits) {
+            if (!(bit instanceof TextArgumentBit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Boolean pure = null;
+
+    /**
+     * Returns whether every tag in this argument (including tags within tags) is pure, see AbstractTagBase.isPure.
+     */
+    public boolean isPure() {
+        Boolean isPure = pure;
+        if (isPure == null) {
+            isPure = true;
+            for (ArgumentBit bit : bits) {
+                if (!bit.isPure()) {
+                    isPure = false;
+                    break;
+                }
+            }
+            pure = isPure;
+        }
+        return isPure;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
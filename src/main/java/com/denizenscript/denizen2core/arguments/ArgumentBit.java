@@ -14,5 +14,12 @@ public abstract class ArgumentBit {
 
     public abstract String getString();
 
+    /**
+     * Returns whether this bit can be parsed on any thread without side effects, see AbstractTagBase.isPure.
+     */
+    public boolean isPure() {
+        return true;
+    }
+
     public abstract AbstractTagObject parse(CommandQueue queue, HashMap<String, AbstractTagObject> vars, DebugMode mode, Action<String> error);
 }
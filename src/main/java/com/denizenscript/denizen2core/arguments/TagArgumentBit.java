@@ -10,6 +10,9 @@ import com.denizenscript.denizen2core.commands.CommandQueue;
 import com.denizenscript.denizen2core.tags.AbstractTagBase;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.debugging.Profiler;
+import com.denizenscript.denizen2core.utilities.metrics.Metrics;
 
 import java.util.HashMap;
 
@@ -29,6 +32,41 @@ public class TagArgumentBit extends ArgumentBit {
         fallback = arg;
     }
 
+    public Argument getFallback() {
+        return fallback;
+    }
+
+    private String profilerName = null;
+
+    /**
+     * Returns the tag's name for the profiler: its chain of keys, without modifiers.
+     */
+    public String getProfilerName() {
+        if (profilerName == null) {
+            StringBuilder name = new StringBuilder();
+            name.append("<");
+            for (int i = 0; i < bits.length; i++) {
+                name.append(i > 0 ? "." : "").append(bits[i].key);
+            }
+            profilerName = Profiler.clean(name.append(">").toString());
+        }
+        return profilerName;
+    }
+
+    @Override
+    public boolean isPure() {
+        AbstractTagBase base = start != null ? start : (bits.length > 0 ? Denizen2Core.tagBases.get(bits[0].key) : null);
+        if (base == null || !base.isPure()) {
+            return false;
+        }
+        for (TagBit bit : bits) {
+            if (bit.variable != null && !bit.variable.isPure()) {
+                return false;
+            }
+        }
+        return fallback == null || fallback.isPure();
+    }
+
     public TagArgumentBit(TagBit[] b) {
         bits = b;
     }
@@ -53,6 +91,8 @@ public class TagArgumentBit extends ArgumentBit {
         if (start == null && bits.length > 0) {
             start = Denizen2Core.tagBases.get(bits[0].key);
         }
+        Metrics.tagsEvaluated.increment();
+        Object recordingEvent = FlightRecording.tags ? FlightRecording.beginTag() : null;
         AbstractTagObject res;
         if (start == null) {
             if (fallback == null) {
@@ -61,8 +101,23 @@ public class TagArgumentBit extends ArgumentBit {
             res = NullTag.NULL;
         }
         else {
+            if (!start.isPure() && TagData.isThreadSafeOnly()) {
+                throw new TagData.NotThreadSafeException("Cannot use tag base '" + start.getName()
+                        + "' while evaluating tags in parallel, as it is not pure.");
+            }
             TagData data = new TagData(error, bits, fallback, vars, mode, queue, this);
-            res = start.handle(data);
+            if (Profiler.isActive()) {
+                long profileStart = Profiler.enter(getProfilerName());
+                try {
+                    res = start.handle(data);
+                }
+                finally {
+                    Profiler.exit(profileStart, 1);
+                }
+            }
+            else {
+                res = start.handle(data);
+            }
         }
         if (res instanceof NullTag && fallback != null) {
             res = fallback.parse(queue, vars, mode, error);
@@ -77,6 +132,9 @@ public class TagArgumentBit extends ArgumentBit {
                 Debug.good(outp);
             }
         }
+        if (recordingEvent != null) {
+            FlightRecording.endTag(recordingEvent, this);
+        }
         return res;
     }
 }
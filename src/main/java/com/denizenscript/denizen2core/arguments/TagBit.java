@@ -6,6 +6,8 @@ public class TagBit {
 
     public final Argument variable;
 
+    public Object specialLocalData = null;
+
     public TagBit(String k, Argument var) {
         key = k;
         variable = var;
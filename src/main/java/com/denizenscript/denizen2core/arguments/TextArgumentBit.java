@@ -14,6 +14,11 @@ public class TextArgumentBit extends ArgumentBit {
         this(inputText, quoted, true);
     }
 
+    public TextArgumentBit(AbstractTagObject inputValue, boolean quoted) {
+        wasQuoted = quoted;
+        value = inputValue;
+    }
+
     public TextArgumentBit(String inputText, boolean quoted, boolean depthAllowed) {
         wasQuoted = quoted;
         try {
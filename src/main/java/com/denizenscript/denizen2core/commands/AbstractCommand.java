@@ -2,6 +2,7 @@ package com.denizenscript.denizen2core.commands;
 
 import com.denizenscript.denizen2core.arguments.Argument;
 import com.denizenscript.denizen2core.arguments.TextArgumentBit;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -53,6 +54,14 @@ public abstract class AbstractCommand {
 
     public abstract void execute(CommandQueue queue, CommandEntry entry);
 
+    /**
+     * Called for each use of this command once a script generation has loaded all its scripts,
+     * to check (and prepare) the entry against them. Problems should be reported as errors, without throwing.
+     */
+    public void onScriptsLoaded(CommandEntry entry, ScriptGeneration generation) {
+        // Do nothing!
+    }
+
     public void adaptBlockFollowers(CommandEntry entry, List<CommandEntry> input, List<CommandEntry> fblock) {
         input.add(GetFollower(entry));
     }
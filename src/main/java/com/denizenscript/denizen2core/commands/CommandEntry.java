@@ -59,6 +59,16 @@ public class CommandEntry {
 
     public Object specialLocalData = null;
 
+    /**
+     * The profiler's frame names for this command, built on first use.
+     */
+    public String[] profilerFrames = null;
+
+    /**
+     * The script this command targets by a constant name, for commands that target scripts, see ScriptTarget.
+     */
+    public ScriptTarget scriptTarget = null;
+
     // <--[explanation]
     // @Since 0.3.0
     // @Name Saved Commands
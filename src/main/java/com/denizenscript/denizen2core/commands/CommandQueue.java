@@ -1,40 +1,141 @@
 package com.denizenscript.denizen2core.commands;
 
-import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.DenizenEngine;
+import com.denizenscript.denizen2core.scripts.CommandScript;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
 import com.denizenscript.denizen2core.tags.objects.MapTag;
 import com.denizenscript.denizen2core.utilities.ErrorInducedException;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.debugging.TickWatchdog;
 import com.denizenscript.denizen2core.utilities.AbstractSender;
 import com.denizenscript.denizen2core.utilities.Action;
+import com.denizenscript.denizen2core.utilities.metrics.Metrics;
 
 import java.util.ArrayDeque;
+import java.util.List;
 
 /**
  * Represents a set of executing commands.
  */
 public class CommandQueue {
 
+    /**
+     * How many script entries a queue's command stack may hold (EG, through the inject command), or 0 for no limit.
+     */
+    public static int maxStackDepth = 256;
+
+    /**
+     * How many script entries below the failing one an error report lists at most.
+     */
+    public final static int ERROR_TRACE_LENGTH = 10;
+
     public final ArrayDeque<CommandStackEntry> commandStack = new ArrayDeque<>();
 
+    /**
+     * The engine this queue runs in: the one running on the thread that created it.
+     */
+    public final DenizenEngine engine = DenizenEngine.current();
+
+    /**
+     * The script generation this queue looks scripts up in: the one current when it was created,
+     * or that of the queue that started it.
+     */
+    public ScriptGeneration generation = engine.generation;
+
+    public CommandScript getScript(String name) {
+        return generation.scripts.get(CoreUtilities.toLowerCase(name));
+    }
+
     public Action<String> error = this::handleError;
 
     public Action<String> specialErrorHandler = null;
 
     public Action<CommandQueue> onStop;
 
+    /**
+     * Called with the full error message when an error stops this queue.
+     */
+    public Action<String> onError = null;
+
     private CommandStackEntry currentEntry = null;
 
-    private CommandEntry waitingOn = null;
+    private QueueFuture waitingOn = null;
 
+    /**
+     * Blocks this queue on a new future for the given command, until something completes it, or until the timeout (in seconds, or 0 for none).
+     * Must be called on the engine's tick thread.
+     */
+    public QueueFuture await(CommandEntry entry, double timeout) {
+        if (waitingOn != null) {
+            waitingOn.cancel();
+        }
+        QueueFuture future = new QueueFuture(this, entry, timeout > 0 ? engine.totalTime + timeout : 0);
+        waitingOn = future;
+        if (timeout > 0) {
+            engine.addTimeout(future);
+        }
+        return future;
+    }
+
+    /**
+     * Makes this queue wait on the given command, or given null, completes what this queue is waiting on.
+     */
     public void waitFor(CommandEntry entry) {
-        waitingOn = entry;
+        if (entry != null) {
+            await(entry, 0);
+        }
+        else if (waitingOn != null) {
+            waitingOn.complete();
+        }
     }
 
     public CommandEntry waitingFor() {
+        QueueFuture future = waitingOn;
+        return future == null || future.isDone() ? null : future.entry;
+    }
+
+    /**
+     * Returns the future this queue is waiting on, if any.
+     */
+    public QueueFuture getWaitingFuture() {
         return waitingOn;
     }
 
+    /**
+     * Returns whether this queue is waiting on a future that has not finished.
+     */
+    public boolean isBlocked() {
+        QueueFuture future = waitingOn;
+        return future != null && !future.isDone();
+    }
+
+    /**
+     * Returns whether this queue is still waiting on a future.
+     * Once the future has finished, stops waiting on it, and reports its error if it failed or timed out.
+     */
+    public boolean checkWaiting() {
+        QueueFuture future = waitingOn;
+        if (future == null) {
+            return false;
+        }
+        if (!future.isDone()) {
+            return true;
+        }
+        waitingOn = null;
+        if (future.getError() != null) {
+            try {
+                handleError(future.entry, future.getError());
+            }
+            catch (ErrorInducedException ex) {
+                // Already reported.
+            }
+        }
+        return false;
+    }
+
     private double wait = 0;
 
     public double getWait() {
@@ -57,16 +158,46 @@ public class CommandQueue {
 
     public AbstractSender sender = null;
 
+    /**
+     * When set, changes to the run counters of scripts (CommandScript.nsUsed and ticksRan) are held here rather than made,
+     * for a queue running off the tick thread. The tick thread runs them afterward.
+     */
+    public List<Runnable> deferredStats = null;
+
     public long startTime;
 
     public long runTime;
 
     public void start() {
+        startDetached();
+        if (!run(0)) {
+            engine.queues.add(this); // TODO: Maybe this should be added to the queue list somewhere for lookup reasons before first-run?
+        }
+    }
+
+    /**
+     * Starts this queue without running it, to run on another thread through runDetached.
+     * Must be called on the engine's tick thread.
+     */
+    public void startDetached() {
         shouldDebugStart = shouldShowGood();
         startTime = System.currentTimeMillis();
-        qID = Denizen2Core.cqID++;
-        if (!run(0)) {
-            Denizen2Core.queues.add(this); // TODO: Maybe this should be added to the queue list somewhere for lookup reasons before first-run?
+        qID = engine.cqID++;
+        Metrics.queuesStarted.increment();
+    }
+
+    /**
+     * Runs this queue (started through startDetached) right away on the calling thread, which need not be the tick thread,
+     * without reporting it to the tick watchdog or flight recorder. Returns whether it finished.
+     * If it did not, it must be registered (on the tick thread) to continue like any other queue.
+     */
+    public boolean runDetached() {
+        DenizenEngine previous = engine.enter();
+        try {
+            return runInternal(0);
+        }
+        finally {
+            DenizenEngine.exit(previous);
         }
     }
 
@@ -81,7 +212,7 @@ public class CommandQueue {
     public void outInfo(String message) {
         Debug.info(message);
         if (sender != null) {
-            sender.sendColoredMessage(ColorSet.base + "[Denizen2/Info] " + message);
+            Debug.send(sender, ColorSet.base + "[Denizen2/Info] " + message);
         }
     }
 
@@ -89,16 +220,44 @@ public class CommandQueue {
         if (shouldShowGood()) {
             Debug.good(message);
             if (sender != null) {
-                sender.sendColoredMessage(ColorSet.good + "[Denizen2/Good] " + message);
+                Debug.send(sender, ColorSet.good + "[Denizen2/Good] " + message);
             }
         }
     }
 
     boolean shouldDebugStart = true;
 
+    /**
+     * The queue whose command started this one running, if this queue is running inside another.
+     */
+    public CommandQueue runningWithin = null;
+
+    /**
+     * Set by the tick watchdog to have this queue yield or stop at its next command.
+     */
+    public volatile TickWatchdog.Response watchdogRequest = null;
+
     public boolean run(double delta) {
+        // The watchdog only watches the default engine, whose queues all run on its tick thread.
+        boolean watched = engine.isDefault();
+        CommandQueue outer = watched ? TickWatchdog.queueStarted(this) : null;
+        Object recordingEvent = FlightRecording.queueRuns ? FlightRecording.beginQueueRun(this) : null;
+        try {
+            return runInternal(delta);
+        }
+        finally {
+            if (watched) {
+                TickWatchdog.queueStopped(outer);
+            }
+            if (recordingEvent != null) {
+                FlightRecording.endQueueRun(recordingEvent);
+            }
+        }
+    }
+
+    private boolean runInternal(double delta) {
         running = true;
-        if (waitingOn != null) {
+        if (checkWaiting()) {
             return false;
         }
         if (paused) {
@@ -138,8 +297,43 @@ public class CommandQueue {
         return true;
     }
 
+    /**
+     * Readies this queue to run (again) as a procedure evaluation frame, see CommandScriptSection.runProcedure.
+     */
+    void prepareFrame(ScriptGeneration frameGeneration, long id, Action<String> errorHandler) {
+        generation = frameGeneration;
+        qID = id;
+        procedural = true;
+        determinations = new MapTag();
+        wait = 0;
+        waitingOn = null;
+        paused = false;
+        watchdogRequest = null;
+        currentEntry = null;
+        specialErrorHandler = errorHandler;
+        shouldDebugStart = false;
+        runTime = 0;
+    }
+
+    /**
+     * Runs this queue as an evaluation frame: right away, without registering it or reporting it to the tick watchdog
+     * or flight recorder as a queue of its own. Returns whether it finished.
+     * If it did not, it is registered to continue like any other queue.
+     */
+    boolean runFrame() {
+        boolean finished = runInternal(0);
+        specialErrorHandler = null;
+        if (!finished) {
+            engine.queues.add(this);
+        }
+        return finished;
+    }
+
     public void stop() {
         commandStack.clear();
+        if (waitingOn != null) {
+            waitingOn.cancel();
+        }
     }
 
     public void handleError(String error) {
@@ -148,38 +342,51 @@ public class CommandQueue {
     }
 
     public void handleError(CommandEntry entry, String error) {
-        String emsg = "Script error occurred: " + error + "\n  in queue " + ColorSet.emphasis + qID + ColorSet.warning;
+        StringBuilder emsgBuilder = new StringBuilder();
+        emsgBuilder.append("Script error occurred: ").append(error).append("\n  in queue ")
+                .append(ColorSet.emphasis).append(qID).append(ColorSet.warning);
         if (currentEntry != null) {
-            emsg += ", in script '" + ColorSet.emphasis + currentEntry.scriptTitle + ColorSet.warning + "'";
+            emsgBuilder.append(", in script '").append(ColorSet.emphasis).append(currentEntry.scriptTitle).append(ColorSet.warning).append("'");
         }
         else {
-            emsg += ", in an unknown script";
+            emsgBuilder.append(", in an unknown script");
         }
         if (entry == null) {
-            emsg += ", while handling an unknown command: " + ColorSet.warning;
+            emsgBuilder.append(", while handling an unknown command: ").append(ColorSet.warning);
         }
         else {
-            emsg += ", while handling command '" + ColorSet.emphasis + entry.originalLine + ColorSet.warning
-                    + "': " + ColorSet.warning;
+            emsgBuilder.append(", while handling command '").append(ColorSet.emphasis).append(entry.originalLine)
+                    .append(ColorSet.warning).append("': ").append(ColorSet.warning);
         }
         if (!commandStack.isEmpty()) {
             commandStack.pop();
             // TODO: Try/catch commands
+            int listed = 0;
             while (!commandStack.isEmpty()) {
+                if (listed++ == ERROR_TRACE_LENGTH) {
+                    emsgBuilder.append("\n  ... and ").append(ColorSet.emphasis).append(commandStack.size())
+                            .append(ColorSet.warning).append(" more scripts");
+                    commandStack.clear();
+                    break;
+                }
                 CommandStackEntry cse = commandStack.pop();
                 int index = cse.getIndex() - 1;
                 if (index < 0 || index >= cse.entries.length) {
-                    emsg += "\n  while handling an invalid/unknown position within script '"
-                            + ColorSet.emphasis + cse.scriptTitle + ColorSet.warning + "'";
+                    emsgBuilder.append("\n  while handling an invalid/unknown position within script '")
+                            .append(ColorSet.emphasis).append(cse.scriptTitle).append(ColorSet.warning).append("'");
                 }
                 else {
                     CommandEntry cseEntry = cse.entries[index];
-                    emsg += "\n  in script '" + ColorSet.emphasis + cse.scriptTitle + ColorSet.warning
-                            + "', while handling command '" + ColorSet.emphasis
-                            + cseEntry.originalLine + ColorSet.warning + "'";
+                    emsgBuilder.append("\n  in script '").append(ColorSet.emphasis).append(cse.scriptTitle).append(ColorSet.warning)
+                            .append("', while handling command '").append(ColorSet.emphasis)
+                            .append(cseEntry.originalLine).append(ColorSet.warning).append("'");
                 }
             }
         }
+        String emsg = emsgBuilder.toString();
+        if (onError != null) {
+            onError.run(emsg);
+        }
         if (specialErrorHandler != null) {
             stop();
             throw new ErrorInducedException(emsg);
@@ -188,7 +395,7 @@ public class CommandQueue {
         if (shouldShowError()) {
             Debug.error(emsg);
             if (sender != null) {
-                sender.sendColoredMessage(ColorSet.warning + "[Denizen2/Error] " + emsg);
+                Debug.send(sender, ColorSet.warning + "[Denizen2/Error] " + emsg);
             }
         }
         stop();
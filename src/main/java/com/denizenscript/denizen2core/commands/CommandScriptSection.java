@@ -1,13 +1,20 @@
 package com.denizenscript.denizen2core.commands;
 
+import com.denizenscript.denizen2core.arguments.Argument;
+import com.denizenscript.denizen2core.DenizenEngine;
 import com.denizenscript.denizen2core.commands.commoncommands.DebugInvalidCommand;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
+import com.denizenscript.denizen2core.tags.objects.MapTag;
+import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.ErrorInducedException;
 import com.denizenscript.denizen2core.utilities.Tuple;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.metrics.RollingStats;
 import com.denizenscript.denizen2core.DebugMode;
 import com.denizenscript.denizen2core.scripts.CommandScript;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -144,8 +151,103 @@ public class CommandScriptSection {
 
     public final CommandStackEntry created;
 
+    /**
+     * Recent execution statistics of this section.
+     */
+    public final RollingStats recentStats = new RollingStats();
+
     public CommandScriptSection(CommandStackEntry entry) {
         created = entry;
+        entry.sectionStats = recentStats;
+    }
+
+    private static class Frame {
+
+        public final CommandQueue queue = new CommandQueue();
+
+        public final CommandStackEntry entry;
+
+        public Frame(CommandStackEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    private final static int MAX_IDLE_FRAMES = 4;
+
+    private final ArrayDeque<Frame> idleFrames = new ArrayDeque<>();
+
+    /**
+     * Returns whether this section can run through runProcedure, which is only when it does not show full debug output.
+     */
+    public boolean canRunAsFrame() {
+        return !created.getDebugMode().showFull;
+    }
+
+    /**
+     * Runs this section as a procedure, right away, in a reused evaluation frame rather than a new queue.
+     * The frame is not registered as a queue, reports the given caller queue ID as its own,
+     * and skips queue start and finish debug output.
+     * Returns the determinations.
+     */
+    public MapTag runProcedure(ScriptGeneration generation, MapTag context, long callerId, Action<String> errorHandler) {
+        DenizenEngine engine = DenizenEngine.current();
+        Frame frame;
+        synchronized (idleFrames) {
+            frame = idleFrames.pollFirst();
+        }
+        if (frame == null || frame.queue.engine != engine) {
+            frame = new Frame(created.clone());
+        }
+        else {
+            frame.entry.resetTo(created);
+        }
+        CommandQueue queue = frame.queue;
+        queue.prepareFrame(generation, callerId, errorHandler);
+        frame.entry.definitions.put("context", context);
+        queue.commandStack.push(frame.entry);
+        if (queue.runFrame()) {
+            synchronized (idleFrames) {
+                if (idleFrames.size() < MAX_IDLE_FRAMES) {
+                    idleFrames.addFirst(frame);
+                }
+            }
+        }
+        return queue.determinations;
+    }
+
+    /**
+     * Returns whether every command in this section is procedural.
+     */
+    public boolean isProcedural() {
+        for (CommandEntry entry : created.entries) {
+            if (!entry.command.isProcedural()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether every command in this section is procedural and every argument of every command is pure,
+     * so that the section may run on any thread, see Argument.isPure.
+     */
+    public boolean isPure() {
+        if (!isProcedural()) {
+            return false;
+        }
+        for (CommandEntry entry : created.entries) {
+            for (Argument arg : entry.arguments) {
+                if (!arg.isPure()) {
+                    return false;
+                }
+            }
+            for (Argument arg : entry.namedArgs.values()) {
+                if (!arg.isPure()) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     public CommandQueue toQueue() {
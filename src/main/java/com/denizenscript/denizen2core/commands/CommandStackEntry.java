@@ -1,11 +1,14 @@
 package com.denizenscript.denizen2core.commands;
 
-import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.events.ScriptEvent;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.utilities.ErrorInducedException;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.debugging.Profiler;
+import com.denizenscript.denizen2core.utilities.debugging.TickWatchdog;
+import com.denizenscript.denizen2core.utilities.metrics.RollingStats;
 import com.denizenscript.denizen2core.DebugMode;
 import com.denizenscript.denizen2core.scripts.CommandScript;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
@@ -74,13 +77,55 @@ public class CommandStackEntry implements Cloneable {
 
     public long lastTickUsed = 0;
 
+    /**
+     * Recent statistics of the script section this entry was created from, if any.
+     */
+    public RollingStats sectionStats = null;
+
+    private void finishRun(CommandQueue queue, long nsNow) {
+        long nsEnd = System.nanoTime();
+        long used = nsEnd - nsNow;
+        if (originalScript != null) {
+            CommandScript script = originalScript;
+            if (queue.deferredStats != null) {
+                queue.deferredStats.add(() -> script.nsUsed += used);
+            }
+            else {
+                script.nsUsed += used;
+            }
+            originalScript.recentStats.record(used, nsEnd);
+        }
+        if (sectionStats != null) {
+            sectionStats.record(used, nsEnd);
+        }
+    }
+
     public CommandStackRetVal run(CommandQueue queue) {
         long nsNow = System.nanoTime();
-        if (originalScript != null && lastTickUsed != Denizen2Core.currentTick) {
-            lastTickUsed = Denizen2Core.currentTick;
-            originalScript.ticksRan++;
+        if (originalScript != null && lastTickUsed != queue.engine.currentTick) {
+            lastTickUsed = queue.engine.currentTick;
+            CommandScript script = originalScript;
+            if (queue.deferredStats != null) {
+                queue.deferredStats.add(() -> script.ticksRan++);
+            }
+            else {
+                script.ticksRan++;
+            }
         }
         while (index < entries.length) {
+            TickWatchdog.Response watchdogRequest = queue.watchdogRequest;
+            if (watchdogRequest != null) {
+                queue.watchdogRequest = null;
+                if (watchdogRequest == TickWatchdog.Response.STOP) {
+                    Debug.error("Stopping queue " + ColorSet.emphasis + queue.qID + ColorSet.warning + " in script '"
+                            + ColorSet.emphasis + scriptTitle + ColorSet.warning + "', as the tick watchdog requested.");
+                    queue.stop();
+                    finishRun(queue, nsNow);
+                    return CommandStackRetVal.STOP;
+                }
+                finishRun(queue, nsNow);
+                return CommandStackRetVal.BREAK;
+            }
             CommandEntry currentCommand = entries[index];
             index++;
             if (currentCommand.command.isWaitable() && currentCommand.waitFor) {
@@ -88,9 +133,7 @@ public class CommandStackEntry implements Cloneable {
             }
             if (queue.procedural && !currentCommand.command.isProcedural()) {
                 queue.handleError(currentCommand, "Tried to run a non-procedural command in a procedural queue!");
-                if (originalScript != null) {
-                    originalScript.nsUsed += System.nanoTime() - nsNow;
-                }
+                finishRun(queue, nsNow);
                 return CommandStackRetVal.STOP;
             }
             if (getDebugMode().showFull && !currentCommand.originalLine.contains("\0")) {
@@ -99,9 +142,12 @@ public class CommandStackEntry implements Cloneable {
                         + " executing command: " + ColorSet.emphasis + currentCommand.originalLine;
                 Debug.good(good);
                 if (queue.sender != null) {
-                    queue.sender.sendColoredMessage(ColorSet.good + "[Denizen2/Good] " + good);
+                    Debug.send(queue.sender, ColorSet.good + "[Denizen2/Good] " + good);
                 }
             }
+            String[] profilerFrames = Profiler.isActive() ? Profiler.commandFrames(currentCommand) : null;
+            long profileStart = profilerFrames != null ? Profiler.enter(profilerFrames) : 0;
+            Object recordingEvent = FlightRecording.commands ? FlightRecording.beginCommand() : null;
             try {
                 currentCommand.command.execute(queue, currentCommand);
             }
@@ -137,22 +183,24 @@ public class CommandStackEntry implements Cloneable {
                     }
                 }
             }
-            if ((queue.getWait() > 0f) || queue.waitingFor() != null || queue.paused) {
-                if (originalScript != null) {
-                    originalScript.nsUsed += System.nanoTime() - nsNow;
+            finally {
+                if (recordingEvent != null) {
+                    FlightRecording.endCommand(recordingEvent, queue, this, currentCommand);
                 }
+                if (profilerFrames != null) {
+                    Profiler.exit(profileStart, profilerFrames.length);
+                }
+            }
+            if ((queue.getWait() > 0f) || queue.checkWaiting() || queue.paused) {
+                finishRun(queue, nsNow);
                 return CommandStackRetVal.BREAK;
             }
             if (queue.commandStack.size() == 0) {
-                if (originalScript != null) {
-                    originalScript.nsUsed += System.nanoTime() - nsNow;
-                }
+                finishRun(queue, nsNow);
                 return CommandStackRetVal.BREAK;
             }
             if (queue.commandStack.peek() != this) {
-                if (originalScript != null) {
-                    originalScript.nsUsed += System.nanoTime() - nsNow;
-                }
+                finishRun(queue, nsNow);
                 return CommandStackRetVal.CONTINUE;
             }
         }
@@ -168,17 +216,25 @@ public class CommandStackEntry implements Cloneable {
                     queue.setDeterminations(null);
             }
             */
-            if (originalScript != null) {
-                originalScript.nsUsed += System.nanoTime() - nsNow;
-            }
+            finishRun(queue, nsNow);
             return CommandStackRetVal.CONTINUE;
         }
-        if (originalScript != null) {
-            originalScript.nsUsed += System.nanoTime() - nsNow;
-        }
+        finishRun(queue, nsNow);
         return CommandStackRetVal.STOP;
     }
 
+    /**
+     * Resets this entry (a clone of the given one) to the state of the given one, to be run again.
+     */
+    void resetTo(CommandStackEntry original) {
+        index = original.index;
+        dbMode = original.dbMode;
+        sendDeterminesTo = original.sendDeterminesTo;
+        definitions.clear();
+        definitions.putAll(original.definitions);
+        System.arraycopy(original.entryObjects, 0, entryObjects, 0, entryObjects.length);
+    }
+
     @Override
     public CommandStackEntry clone() {
         try {
@@ -0,0 +1,112 @@
+package com.denizenscript.denizen2core.commands;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Something a queue is waiting on before it runs its next command, EG, another queue to finish, or some task on another thread.
+ * Create one for a queue through CommandQueue.await, then complete (or fail) it from any thread when the work is done.
+ * The queue resumes on its engine's next tick, and errors if the future failed or timed out.
+ * Stopping the queue cancels the future.
+ * Only the first of complete, fail, cancel, or the timeout takes effect.
+ */
+public class QueueFuture {
+
+    public enum State {
+        PENDING,
+        COMPLETED,
+        FAILED,
+        TIMED_OUT,
+        CANCELLED
+    }
+
+    private static class Outcome {
+
+        public final State state;
+
+        public final String error;
+
+        public Outcome(State state, String error) {
+            this.state = state;
+            this.error = error;
+        }
+    }
+
+    private final static Outcome PENDING = new Outcome(State.PENDING, null);
+
+    /**
+     * The queue waiting on this future.
+     */
+    public final CommandQueue queue;
+
+    /**
+     * The command the queue is waiting on.
+     */
+    public final CommandEntry entry;
+
+    /**
+     * When this future times out, in seconds of the engine's total time, or 0 for never.
+     */
+    public final double deadline;
+
+    private final AtomicReference<Outcome> outcome = new AtomicReference<>(PENDING);
+
+    public QueueFuture(CommandQueue queue, CommandEntry entry, double deadline) {
+        this.queue = queue;
+        this.entry = entry;
+        this.deadline = deadline;
+    }
+
+    private boolean finish(State state, String error) {
+        if (!outcome.compareAndSet(PENDING, new Outcome(state, error))) {
+            return false;
+        }
+        queue.engine.futureFinished(this);
+        return true;
+    }
+
+    /**
+     * Completes this future, letting the queue continue. May be called from any thread.
+     * Returns whether this call finished the future.
+     */
+    public boolean complete() {
+        return finish(State.COMPLETED, null);
+    }
+
+    /**
+     * Fails this future, making the queue error with the given message when it resumes. May be called from any thread.
+     * Returns whether this call finished the future.
+     */
+    public boolean fail(String error) {
+        return finish(State.FAILED, error);
+    }
+
+    /**
+     * Cancels this future, as happens when the queue is stopped. May be called from any thread.
+     * Returns whether this call finished the future.
+     */
+    public boolean cancel() {
+        return finish(State.CANCELLED, null);
+    }
+
+    /**
+     * Times this future out, if it has not finished yet. Called by the engine when the deadline passes.
+     */
+    public boolean timeOut() {
+        return finish(State.TIMED_OUT, "Timed out waiting for the command to finish!");
+    }
+
+    public State getState() {
+        return outcome.get().state;
+    }
+
+    public boolean isDone() {
+        return outcome.get() != PENDING;
+    }
+
+    /**
+     * Returns the error the queue should report, if this future failed or timed out.
+     */
+    public String getError() {
+        return outcome.get().error;
+    }
+}
@@ -0,0 +1,128 @@
+package com.denizenscript.denizen2core.commands;
+
+import com.denizenscript.denizen2core.arguments.Argument;
+import com.denizenscript.denizen2core.scripts.CommandScript;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
+import com.denizenscript.denizen2core.scripts.commontypes.TaskScript;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.LRUCache;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
+
+import java.util.List;
+
+/**
+ * A task script section named by a command (EG, run or inject), as "script" or "script.section".
+ * The script and section are looked up once per script generation, so only again after a reload.
+ * A constant name is resolved when scripts load and kept on its command entry,
+ * while names built from tags share a small cache of recently used targets.
+ */
+public class ScriptTarget {
+
+    public final static int MAX_DYNAMIC_TARGETS = 256;
+
+    private final static LRUCache<String, ScriptTarget> dynamicTargets = new LRUCache<>(MAX_DYNAMIC_TARGETS);
+
+    /**
+     * Returns the target of a command's script name argument.
+     */
+    public static ScriptTarget forEntry(CommandQueue queue, CommandEntry entry, int argument) {
+        ScriptTarget target = entry.scriptTarget;
+        if (target != null) {
+            return target;
+        }
+        Argument arg = entry.arguments.get(argument);
+        if (arg.isConstant()) {
+            target = new ScriptTarget(arg.toString());
+            entry.scriptTarget = target;
+            return target;
+        }
+        return dynamic(entry.getArgumentObject(queue, argument).toString());
+    }
+
+    public static ScriptTarget dynamic(String name) {
+        return dynamicTargets.getOrCompute(name, ScriptTarget::new);
+    }
+
+    /**
+     * Resolves a command's constant script name argument (if it has one) against a newly loaded script generation,
+     * reporting targets that do not exist.
+     */
+    public static void check(CommandEntry entry, int argument, ScriptGeneration generation) {
+        if (entry.arguments.size() <= argument || !entry.arguments.get(argument).isConstant()) {
+            return;
+        }
+        ScriptTarget target = entry.scriptTarget;
+        if (target == null) {
+            target = new ScriptTarget(entry.arguments.get(argument).toString());
+            entry.scriptTarget = target;
+        }
+        Resolution resolution = target.resolve(generation);
+        String problem = null;
+        if (resolution.script == null) {
+            problem = "refers to a script that does not exist";
+        }
+        else if (!(resolution.script instanceof TaskScript)) {
+            problem = "refers to a script that is not a task script";
+        }
+        else if (resolution.section == null) {
+            problem = "refers to a script section that does not exist";
+        }
+        if (problem != null) {
+            Debug.error("In script '" + ColorSet.emphasis + entry.scriptName + ColorSet.warning + "', command '"
+                    + ColorSet.emphasis + entry.originalLine + ColorSet.warning + "' " + problem + "!");
+        }
+    }
+
+    private static class Resolution {
+
+        public final long generationId;
+
+        public final CommandScript script;
+
+        public final CommandScriptSection section;
+
+        public Resolution(long generationId, CommandScript script, CommandScriptSection section) {
+            this.generationId = generationId;
+            this.script = script;
+            this.section = section;
+        }
+    }
+
+    public final String scriptName;
+
+    public final String sectionName;
+
+    private volatile Resolution resolution = null;
+
+    public ScriptTarget(String name) {
+        List<String> bits = CoreUtilities.split(CoreUtilities.toLowerCase(name), '.', 2);
+        scriptName = bits.get(0);
+        sectionName = bits.size() > 1 ? bits.get(1) : null;
+    }
+
+    private Resolution resolve(ScriptGeneration generation) {
+        Resolution res = resolution;
+        if (res == null || res.generationId != generation.id) {
+            CommandScript script = generation.scripts.get(scriptName);
+            CommandScriptSection section = script instanceof TaskScript ? ((TaskScript) script).getSection(sectionName) : null;
+            res = new Resolution(generation.id, script, section);
+            resolution = res;
+        }
+        return res;
+    }
+
+    /**
+     * Returns the named script in the given generation, or null if there is none.
+     */
+    public CommandScript getScript(ScriptGeneration generation) {
+        return resolve(generation).script;
+    }
+
+    /**
+     * Returns the named section in the given generation, or null if there is none or the script is not a task script.
+     */
+    public CommandScriptSection getSection(ScriptGeneration generation) {
+        return resolve(generation).section;
+    }
+}
@@ -0,0 +1,122 @@
+package com.denizenscript.denizen2core.commands.commoncommands;
+
+import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.commands.AbstractCommand;
+import com.denizenscript.denizen2core.commands.CommandEntry;
+import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.tags.objects.IntegerTag;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.debugging.Profiler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+public class ProfileCommand extends AbstractCommand {
+
+    // <--[command]
+    // @Since 0.5.5
+    // @Name profile
+    // @Arguments 'start'/'stop'/'reset'/'report'/'export' [count or path]
+    // @Short controls the script profiler.
+    // @Updated 2026/10/19
+    // @Group Common
+    // @Minimum 1
+    // @Maximum 2
+    // @Description
+    // Controls the script profiler, which records how much time is spent in each script, section, command line, tag,
+    // and tag part, while it is running.
+    // 'start' begins (or continues) recording, 'stop' stops recording, and 'reset' clears everything recorded.
+    // 'report' shows the stacks with the most time spent in themselves. Optionally specify how many to show (default 20).
+    // 'export' saves everything recorded to a file in the script data folder, in the "collapsed stack" format
+    // read by flame graph tools. Specify the file path, without extension ('.txt' is added).
+    // The profiler records only on the main thread, and has a small cost while running.
+    // @Example
+    // # This example starts the profiler.
+    // - profile start
+    // @Example
+    // # This example shows the 10 most expensive stacks.
+    // - profile report 10
+    // @Example
+    // # This example saves a flame graph input file.
+    // - profile export profiles/latest
+    // -->
+
+    @Override
+    public String getName() {
+        return "profile";
+    }
+
+    @Override
+    public String getArguments() {
+        return "'start'/'stop'/'reset'/'report'/'export' [count or path]";
+    }
+
+    @Override
+    public int getMinimumArguments() {
+        return 1;
+    }
+
+    @Override
+    public int getMaximumArguments() {
+        return 2;
+    }
+
+    @Override
+    public void execute(CommandQueue queue, CommandEntry entry) {
+        String mode = CoreUtilities.toLowerCase(entry.getArgumentObject(queue, 0).toString());
+        if (mode.equals("start")) {
+            Profiler.start();
+            if (queue.shouldShowGood()) {
+                queue.outGood("Profiler started.");
+            }
+        }
+        else if (mode.equals("stop")) {
+            Profiler.stop();
+            if (queue.shouldShowGood()) {
+                queue.outGood("Profiler stopped.");
+            }
+        }
+        else if (mode.equals("reset")) {
+            Profiler.reset();
+            if (queue.shouldShowGood()) {
+                queue.outGood("Profiler reset.");
+            }
+        }
+        else if (mode.equals("report")) {
+            int count = 20;
+            if (entry.arguments.size() > 1) {
+                count = (int) IntegerTag.getFor(queue.error, entry.getArgumentObject(queue, 1)).getInternal();
+            }
+            Debug.info(Profiler.topReport(count));
+        }
+        else if (mode.equals("export")) {
+            if (entry.arguments.size() < 2) {
+                queue.handleError(entry, "Must specify a path to export to!");
+                return;
+            }
+            String path = "./" + entry.getArgumentObject(queue, 1).toString() + ".txt";
+            if (!Denizen2Core.getImplementation().isSafePath(path)) {
+                queue.handleError(entry, "Cannot save to that path ('" + path + "'), it's marked un-safe.");
+                return;
+            }
+            File f = new File(Denizen2Core.getImplementation().getScriptDataFolder(), path);
+            f.getParentFile().mkdirs();
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(f), CoreUtilities.encoding)) {
+                Profiler.writeCollapsed(writer);
+            }
+            catch (Exception e) {
+                queue.handleError(entry, "Failed to export profile: " + e.getClass().getCanonicalName() + ": " + e.getMessage());
+                return;
+            }
+            if (queue.shouldShowGood()) {
+                queue.outGood("Exported profile to " + path + ".");
+            }
+        }
+        else {
+            queue.handleError(entry, "Invalid profile mode: " + mode);
+        }
+    }
+}
@@ -11,18 +11,23 @@ public class ReloadCommand extends AbstractCommand {
     // <--[command]
     // @Since 0.3.0
     // @Name reload
-    // @Arguments [debug boolean]
+    // @Arguments [debug boolean] [changed only boolean]
     // @Short reloads the script engine, recalculating any scripts available.
-    // @Updated 2016/08/07
+    // @Updated 2026/10/19
     // @Group Common
     // @Minimum 0
-    // @Maximum 1
+    // @Maximum 2
     // @Description
     // Reloads the script engine, recalculating any scripts available.
+    // If 'changed only' is true, script files that have not changed since they were last loaded
+    // keep their already-compiled scripts rather than being recompiled.
     // TODO: Explain more?
     // @Example
     // # This example reloads all scripts.
     // - reload
+    // @Example
+    // # This example reloads only script files that have changed.
+    // - reload false true
     // -->
 
     @Override
@@ -42,12 +47,21 @@ public class ReloadCommand extends AbstractCommand {
 
     @Override
     public int getMaximumArguments() {
-        return 1;
+        return 2;
     }
 
     @Override
     public void execute(CommandQueue queue, CommandEntry entry) {
-        Denizen2Core.reload();
+        boolean changedOnly = false;
+        if (entry.arguments.size() > 1) {
+            changedOnly = BooleanTag.getFor(queue.error, entry.getArgumentObject(queue, 1)).getInternal();
+        }
+        if (changedOnly) {
+            Denizen2Core.reloadChanged();
+        }
+        else {
+            Denizen2Core.reload();
+        }
         if (entry.arguments.size() > 0) {
             BooleanTag bool = BooleanTag.getFor(queue.error, entry.getArgumentObject(queue, 0));
             if (bool.getInternal()) {
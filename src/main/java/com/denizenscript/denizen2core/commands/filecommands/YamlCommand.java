@@ -1,17 +1,23 @@
 package com.denizenscript.denizen2core.commands.filecommands;
 
 import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.arguments.Argument;
 import com.denizenscript.denizen2core.commands.AbstractCommand;
 import com.denizenscript.denizen2core.commands.CommandEntry;
 import com.denizenscript.denizen2core.commands.CommandQueue;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.objects.ListTag;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.metrics.Metrics;
 import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
+import com.denizenscript.denizen2core.utilities.yaml.YamlPath;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -85,6 +91,22 @@ public class YamlCommand extends AbstractCommand {
         return 4;
     }
 
+    /**
+     * Gets the YAML key path argument, compiling it only once if it's a literal.
+     */
+    private static YamlPath getPath(CommandQueue queue, CommandEntry entry) {
+        if (entry.specialLocalData instanceof YamlPath) {
+            return (YamlPath) entry.specialLocalData;
+        }
+        Argument arg = entry.arguments.get(2);
+        if (arg.isConstant()) {
+            YamlPath path = YamlPath.of(arg.toString());
+            entry.specialLocalData = path;
+            return path;
+        }
+        return YamlPath.of(entry.getArgumentObject(queue, 2).toString());
+    }
+
     @Override
     public void execute(CommandQueue queue, CommandEntry entry) {
         String id = CoreUtilities.toLowerCase(entry.getArgumentObject(queue, 0).toString());
@@ -94,7 +116,7 @@ public class YamlCommand extends AbstractCommand {
                 queue.handleError(entry, "Cannot close things from a procedural queue!");
                 return;
             }
-            if (Denizen2Core.filesLoadedByScripts.remove(id) == null) {
+            if (Denizen2Core.getFilesLoadedByScripts().remove(id) == null) {
                 queue.handleError(entry, "Closed non-existent YAML file!");
                 return;
             }
@@ -103,7 +125,7 @@ public class YamlCommand extends AbstractCommand {
             }
             return;
         }
-        boolean hasAlready = Denizen2Core.filesLoadedByScripts.containsKey(id);
+        boolean hasAlready = Denizen2Core.getFilesLoadedByScripts().containsKey(id);
         if (mode.equals("load")) {
             if (hasAlready) {
                 queue.handleError(entry, "Cannot load to an already-loaded ID ('" + id + "').");
@@ -115,16 +137,18 @@ public class YamlCommand extends AbstractCommand {
                 return;
             }
             try {
+                long start = System.nanoTime();
+                Object recordingEvent = FlightRecording.yaml ? FlightRecording.beginYaml() : null;
                 File f = new File(Denizen2Core.getImplementation().getScriptDataFolder(), path);
-                FileInputStream fis = new FileInputStream(f);
-                String t = CoreUtilities.streamToString(fis);
-                fis.close();
-                if (t == null) {
-                    queue.handleError(entry, "Cannot load from that path ('" + path + "'), it appears to not be valid.");
-                    return;
+                YAMLConfiguration config;
+                try (Reader reader = new InputStreamReader(new FileInputStream(f), CoreUtilities.encoding)) {
+                    config = YAMLConfiguration.load(reader);
+                }
+                Metrics.yamlLoadTime.recordSince(start);
+                if (recordingEvent != null) {
+                    FlightRecording.endYaml(recordingEvent, "load", path);
                 }
-                YAMLConfiguration config = YAMLConfiguration.load(t);
-                Denizen2Core.filesLoadedByScripts.put(id, config);
+                Denizen2Core.getFilesLoadedByScripts().put(id, config);
                 if (queue.shouldShowGood()) {
                     queue.outGood("Loaded a YAML file!");
                 }
@@ -141,7 +165,7 @@ public class YamlCommand extends AbstractCommand {
                 return;
             }
             YAMLConfiguration config = new YAMLConfiguration();
-            Denizen2Core.filesLoadedByScripts.put(id, config);
+            Denizen2Core.getFilesLoadedByScripts().put(id, config);
             if (queue.shouldShowGood()) {
                 queue.outGood("Created a YAML file!");
             }
@@ -151,7 +175,7 @@ public class YamlCommand extends AbstractCommand {
             queue.handleError(entry, "Cannot work with an unloaded ID ('" + id + "').");
             return;
         }
-        Object o = Denizen2Core.filesLoadedByScripts.get(id);
+        Object o = Denizen2Core.getFilesLoadedByScripts().get(id);
         YAMLConfiguration yconfig;
         if (o instanceof YAMLConfiguration) {
             yconfig = (YAMLConfiguration) o;
@@ -167,6 +191,8 @@ public class YamlCommand extends AbstractCommand {
                 return;
             }
             try {
+                long start = System.nanoTime();
+                Object recordingEvent = FlightRecording.yaml ? FlightRecording.beginYaml() : null;
                 String res = yconfig.saveToString();
                 File f = new File(Denizen2Core.getImplementation().getScriptDataFolder(), path);
                 f.getParentFile().mkdirs();
@@ -174,6 +200,10 @@ public class YamlCommand extends AbstractCommand {
                 fos.write(res.getBytes(CoreUtilities.encoding));
                 fos.flush();
                 fos.close();
+                Metrics.yamlSaveTime.recordSince(start);
+                if (recordingEvent != null) {
+                    FlightRecording.endYaml(recordingEvent, "save", path);
+                }
                 if (queue.shouldShowGood()) {
                     queue.outGood("Saved a YAML file!");
                 }
@@ -185,7 +215,7 @@ public class YamlCommand extends AbstractCommand {
             }
         }
         if (mode.equals("set")) {
-            String path = entry.getArgumentObject(queue, 2).toString();
+            YamlPath path = getPath(queue, entry);
             AbstractTagObject val = entry.getArgumentObject(queue, 3);
             if (val instanceof ListTag) {
                 List<String> res = new ArrayList<>();
@@ -203,7 +233,7 @@ public class YamlCommand extends AbstractCommand {
             return;
         }
         if (mode.equals("setobject")) {
-            String path = entry.getArgumentObject(queue, 2).toString();
+            YamlPath path = getPath(queue, entry);
             AbstractTagObject val = entry.getArgumentObject(queue, 3);
             if (val instanceof ListTag) {
                 List<String> res = new ArrayList<>();
@@ -221,7 +251,7 @@ public class YamlCommand extends AbstractCommand {
             return;
         }
         if (mode.equals("remove")) {
-            String path = entry.getArgumentObject(queue, 2).toString();
+            YamlPath path = getPath(queue, entry);
             yconfig.set(path, null);
             if (queue.shouldShowGood()) {
                 queue.outGood("Removed a value!");
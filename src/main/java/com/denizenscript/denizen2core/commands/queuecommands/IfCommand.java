@@ -269,16 +269,35 @@ public class IfCommand extends AbstractCommand {
     private static final boolean DEBUG = false;
 
     public static void jumpToEnd(CommandStackEntry cse) {
+        cse.goTo(skipElses(cse.entries, cse.getIndex()));
+    }
+
+    private static int skipElses(CommandEntry[] entries, int spot) {
+        while (spot < entries.length) {
+            if (!(entries[spot].command instanceof ElseCommand)
+                    || (entries[spot].blockStart != spot)) {
+                return spot;
+            }
+            spot = entries[spot].blockEnd + 1;
+        }
+        return entries.length;
+    }
+
+    /**
+     * Returns where the given stack entry will next run a command that does anything,
+     * passing over the ends of the IF and ELSE blocks it is in.
+     */
+    public static int nextEffectiveIndex(CommandStackEntry cse) {
         int spot = cse.getIndex();
         while (spot < cse.entries.length) {
-            if (!(cse.entries[spot].command instanceof ElseCommand)
-                    || (cse.entries[spot].blockStart != spot)) {
-                cse.goTo(spot);
-                return;
+            CommandEntry entry = cse.entries[spot];
+            if (!(entry.command instanceof IfCommand || entry.command instanceof ElseCommand)
+                    || entry.arguments.size() == 0 || !entry.arguments.get(0).toString().equals("\0CALLBACK")) {
+                return spot;
             }
-            spot = cse.entries[spot].blockEnd + 1;
+            spot = skipElses(cse.entries, spot + 1);
         }
-        cse.goTo(cse.entries.length);
+        return cse.entries.length;
     }
 
     @Override
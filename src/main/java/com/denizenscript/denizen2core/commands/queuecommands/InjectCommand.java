@@ -1,14 +1,10 @@
 package com.denizenscript.denizen2core.commands.queuecommands;
 
-import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.commands.*;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
 import com.denizenscript.denizen2core.scripts.commontypes.TaskScript;
-import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 import com.denizenscript.denizen2core.scripts.CommandScript;
-import com.denizenscript.denizen2core.utilities.CoreUtilities;
-
-import java.util.List;
 
 public class InjectCommand extends AbstractCommand {
 
@@ -17,14 +13,19 @@ public class InjectCommand extends AbstractCommand {
     // @Name inject
     // @Arguments <script>
     // @Short injects a script into the current queue.
-    // @Updated 2016/08/11
+    // @Updated 2026/10/19
     // @Group Queue
     // @Procedural true
     // @Minimum 1
     // @Maximum 1
     // @Description
     // Injects a script into the current queue.
-    // TODO: Explain more!
+    // The injected script shares the definitions of the script that injected it,
+    // and when it is done, the injecting script continues after the inject command.
+    // When the inject command is the very last command of an injected script, the new script takes its place
+    // rather than running on top of it (a "tail injection"), so a script that ends by injecting itself may do so any number of times.
+    // Otherwise, scripts may only be injected into each other up to a limited depth (by default 256),
+    // after which the inject command errors.
     // @Example
     // # This example injects the script "test" in the current queue.
     // - inject test
@@ -55,12 +56,15 @@ public class InjectCommand extends AbstractCommand {
         return true;
     }
 
+    @Override
+    public void onScriptsLoaded(CommandEntry entry, ScriptGeneration generation) {
+        ScriptTarget.check(entry, 0, generation);
+    }
+
     @Override
     public void execute(CommandQueue queue, CommandEntry entry) {
-        AbstractTagObject scriptobj = entry.getArgumentObject(queue, 0);
-        String scriptName = scriptobj.toString();
-        List<String> bits = CoreUtilities.split(scriptName, '.', 2);
-        CommandScript script = Denizen2Core.currentScripts.get(CoreUtilities.toLowerCase(bits.get(0)));
+        ScriptTarget target = ScriptTarget.forEntry(queue, entry, 0);
+        CommandScript script = target.getScript(queue.generation);
         if (script == null) {
             queue.handleError(entry, "Invalid script name!");
             return;
@@ -69,8 +73,7 @@ public class InjectCommand extends AbstractCommand {
             queue.handleError(entry, "Trying to inject a non-task typed script!");
             return;
         }
-        TaskScript task = (TaskScript) script;
-        CommandScriptSection section = task.getSection(bits.size() > 1 ? bits.get(1) : null);
+        CommandScriptSection section = target.getSection(queue.generation);
         if (section == null) {
             queue.handleError(entry, "Invalid script section!");
             return;
@@ -78,8 +81,20 @@ public class InjectCommand extends AbstractCommand {
         if (queue.shouldShowGood()) {
             queue.outGood("Injecting script: " + ColorSet.emphasis + script.title);
         }
+        CommandStackEntry current = queue.commandStack.peek();
+        // Tail injection: nothing is left to run in the current script, so the new one can replace it.
+        // The bottom script of the queue is never replaced, as it identifies what the queue is running.
+        boolean tail = IfCommand.nextEffectiveIndex(current) >= current.entries.length && queue.commandStack.size() > 1;
+        if (!tail && CommandQueue.maxStackDepth > 0 && queue.commandStack.size() >= CommandQueue.maxStackDepth) {
+            queue.handleError(entry, "Too many scripts injected into each other (the limit is "
+                    + CommandQueue.maxStackDepth + ")! Is a script injecting itself forever?");
+            return;
+        }
         CommandStackEntry cse = section.toCSE();
-        cse.definitions = queue.commandStack.peek().definitions;
+        cse.definitions = current.definitions;
+        if (tail) {
+            queue.commandStack.pop();
+        }
         queue.commandStack.push(cse);
     }
 }
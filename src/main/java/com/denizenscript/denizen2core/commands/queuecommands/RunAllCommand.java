@@ -0,0 +1,232 @@
+package com.denizenscript.denizen2core.commands.queuecommands;
+
+import com.denizenscript.denizen2core.commands.AbstractCommand;
+import com.denizenscript.denizen2core.commands.CommandEntry;
+import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.commands.CommandScriptSection;
+import com.denizenscript.denizen2core.commands.QueueFuture;
+import com.denizenscript.denizen2core.commands.ScriptTarget;
+import com.denizenscript.denizen2core.scripts.CommandScript;
+import com.denizenscript.denizen2core.scripts.commontypes.TaskScript;
+import com.denizenscript.denizen2core.tags.AbstractTagObject;
+import com.denizenscript.denizen2core.tags.TagData;
+import com.denizenscript.denizen2core.tags.objects.BooleanTag;
+import com.denizenscript.denizen2core.tags.objects.ListTag;
+import com.denizenscript.denizen2core.tags.objects.MapTag;
+import com.denizenscript.denizen2core.tags.objects.QueueTag;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class RunAllCommand extends AbstractCommand {
+
+    // <--[command]
+    // @Since 0.5.5
+    // @Name run_all
+    // @Arguments <script list> [definition map list]
+    // @Short Runs several scripts as new queues, and can wait for all of them to finish.
+    // @Updated 2026/10/19
+    // @Group Queue
+    // @Minimum 1
+    // @Maximum 2
+    // @Tag <[run_all_results]> (ListTag) returns a list of the determinations (MapTag) of each queue, in order.
+    // @Tag <[run_all_queues]> (ListTag) returns a list of the ran queues (QueueTag), in order.
+    // @Save run_all_results (ListTag) returns a list of the determinations (MapTag) of each queue, in order.
+    // @Description
+    // Runs each script in a list as a new queue, like the run command.
+    // Optionally add a list of definition maps to pass to the new queues, one per script.
+    // If only one script is given with a list of definition maps, that script is run once for each map.
+    // When waited on (with '&'), the command waits until every queue has finished,
+    // or until any queue fails with an error, in which case this command errors as well.
+    // The results list holds each queue's determinations, filled in as each finishes.
+    // A queue that has not finished (or that failed) has an empty map in the list.
+    // Optionally specify named argument "parallel" as "true" to run the queues at the same time across worker threads,
+    // finishing them all before this command continues.
+    // This only works with scripts made only of procedural commands whose tags are all pure
+    // (see <@link explanation Parallel List Tags>Parallel List Tags<@/link>), and the queues run as procedural queues.
+    // As with parallel list tags, only thread safe objects may be handled by the tags, and scripts injected while running
+    // may only use pure tag bases: a queue that reaches anything else fails.
+    // The output of each queue is held until they have all run, then shown in list order.
+    // @Example
+    // # This example runs the scripts "first" and "second", and echoes both results once both have finished.
+    // - &run_all first|second
+    // - echo <[run_all_results]>
+    // @Example
+    // # This example runs the script "count" three times, with definition "x" set to 1, 2, and 3,
+    // # spread across worker threads.
+    // - run_all count <list[1|2|3].parse[<map[x:<[parse_value]>]>]> --parallel true
+    // -->
+
+    @Override
+    public String getName() {
+        return "run_all";
+    }
+
+    @Override
+    public String getArguments() {
+        return "<script list> [definition map list]";
+    }
+
+    @Override
+    public int getMinimumArguments() {
+        return 1;
+    }
+
+    @Override
+    public int getMaximumArguments() {
+        return 2;
+    }
+
+    @Override
+    public boolean isWaitable() {
+        return true;
+    }
+
+    /**
+     * Tracks the queues started by one use of run_all, finishing the waiting queue's future when they are all done or one fails.
+     */
+    private static class RunAllData {
+
+        public final QueueFuture future;
+
+        public final ListTag results;
+
+        public int remaining;
+
+        public RunAllData(QueueFuture future, ListTag results, int remaining) {
+            this.future = future;
+            this.results = results;
+            this.remaining = remaining;
+        }
+
+        public synchronized void failed() {
+            if (future != null) {
+                future.fail("A queue started by run_all failed!");
+            }
+        }
+
+        public synchronized void stopped(int index, CommandQueue queue, boolean failed) {
+            if (!failed) {
+                results.getInternal().set(index, queue.determinations);
+            }
+            remaining--;
+            if (remaining <= 0 && future != null) {
+                future.complete();
+            }
+        }
+    }
+
+    @Override
+    public void execute(CommandQueue queue, CommandEntry entry) {
+        ListTag scripts = ListTag.getFor(queue.error, entry.getArgumentObject(queue, 0));
+        List<MapTag> definitions = new ArrayList<>();
+        if (entry.arguments.size() > 1) {
+            ListTag defList = ListTag.getFor(queue.error, entry.getArgumentObject(queue, 1));
+            for (AbstractTagObject defs : defList.getInternal()) {
+                definitions.add(MapTag.getFor(queue.error, defs));
+            }
+            if (scripts.getInternal().size() != 1 && definitions.size() != scripts.getInternal().size()) {
+                queue.handleError(entry, "The definition map list must have one map per script!");
+                return;
+            }
+        }
+        boolean parallel = entry.namedArgs.containsKey("parallel")
+                && BooleanTag.getFor(queue.error, entry.getNamedArgumentObject(queue, "parallel")).getInternal();
+        int count = definitions.isEmpty() ? scripts.getInternal().size() : definitions.size();
+        List<CommandQueue> children = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String scriptName = scripts.getInternal().get(scripts.getInternal().size() == 1 ? 0 : i).toString();
+            ScriptTarget target = ScriptTarget.dynamic(scriptName);
+            CommandScript script = target.getScript(queue.generation);
+            if (script == null) {
+                queue.handleError(entry, "Invalid script name: " + ColorSet.emphasis + scriptName + ColorSet.warning + "!");
+                return;
+            }
+            if (!(script instanceof TaskScript)) {
+                queue.handleError(entry, "Trying to run a non-task typed script: " + ColorSet.emphasis + scriptName + ColorSet.warning + "!");
+                return;
+            }
+            CommandScriptSection section = target.getSection(queue.generation);
+            if (section == null) {
+                queue.handleError(entry, "Invalid script section: " + ColorSet.emphasis + scriptName + ColorSet.warning + "!");
+                return;
+            }
+            if (parallel && !section.isPure()) {
+                queue.handleError(entry, "Cannot run script '" + ColorSet.emphasis + scriptName + ColorSet.warning
+                        + "' in parallel, as it has commands that are not procedural or tags that are not pure!");
+                return;
+            }
+            CommandQueue nq = section.toQueue();
+            nq.generation = queue.generation;
+            nq.procedural = parallel;
+            if (!definitions.isEmpty()) {
+                nq.commandStack.peek().definitions.putAll(definitions.get(i).getInternal());
+            }
+            nq.sender = queue.sender;
+            children.add(nq);
+        }
+        if (queue.shouldShowGood()) {
+            queue.outGood("Running " + ColorSet.emphasis + count + ColorSet.good + " queues" + (parallel ? " in parallel" : "") + ".");
+        }
+        ListTag results = new ListTag(count);
+        ListTag queues = new ListTag(count);
+        for (CommandQueue nq : children) {
+            results.getInternal().add(new MapTag());
+            queues.getInternal().add(new QueueTag(nq));
+        }
+        RunAllData data = new RunAllData(entry.waitFor ? queue.getWaitingFuture() : null, results, count);
+        queue.commandStack.peek().setDefinition(entry.resName(queue, "run_all_results"), results);
+        queue.commandStack.peek().setDefinition("run_all_queues", queues);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            boolean[] failed = new boolean[1];
+            children.get(i).onError = (error) -> {
+                failed[0] = true;
+                data.failed();
+            };
+            children.get(i).onStop = (nqueue) -> data.stopped(index, nqueue, failed[0]);
+        }
+        if (count == 0 && entry.waitFor) {
+            data.future.complete();
+        }
+        if (parallel) {
+            List<List<Runnable>> outputs = new ArrayList<>(count);
+            for (CommandQueue nq : children) {
+                nq.startDetached();
+                nq.deferredStats = new ArrayList<>();
+                outputs.add(new ArrayList<>());
+            }
+            boolean[] finished = new boolean[count];
+            IntStream.range(0, count).parallel().forEach((i) -> {
+                boolean previous = TagData.setThreadSafeOnly(true);
+                Debug.startBuffering(outputs.get(i));
+                try {
+                    finished[i] = children.get(i).runDetached();
+                }
+                finally {
+                    Debug.stopBuffering();
+                    TagData.setThreadSafeOnly(previous);
+                }
+            });
+            for (int i = 0; i < count; i++) {
+                CommandQueue nq = children.get(i);
+                Debug.replay(outputs.get(i));
+                for (Runnable stat : nq.deferredStats) {
+                    stat.run();
+                }
+                nq.deferredStats = null;
+                if (!finished[i]) {
+                    queue.engine.queues.add(nq);
+                }
+            }
+        }
+        else {
+            for (CommandQueue nq : children) {
+                nq.start();
+            }
+        }
+    }
+}
@@ -1,19 +1,18 @@
 package com.denizenscript.denizen2core.commands.queuecommands;
 
-import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.commands.AbstractCommand;
 import com.denizenscript.denizen2core.commands.CommandEntry;
 import com.denizenscript.denizen2core.commands.CommandQueue;
 import com.denizenscript.denizen2core.commands.CommandScriptSection;
+import com.denizenscript.denizen2core.commands.QueueFuture;
+import com.denizenscript.denizen2core.commands.ScriptTarget;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
 import com.denizenscript.denizen2core.scripts.commontypes.TaskScript;
-import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.objects.MapTag;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 import com.denizenscript.denizen2core.scripts.CommandScript;
 import com.denizenscript.denizen2core.tags.objects.QueueTag;
-import com.denizenscript.denizen2core.utilities.CoreUtilities;
 
-import java.util.List;
 
 public class RunCommand extends AbstractCommand {
 
@@ -70,12 +69,15 @@ public class RunCommand extends AbstractCommand {
         return true;
     }
 
+    @Override
+    public void onScriptsLoaded(CommandEntry entry, ScriptGeneration generation) {
+        ScriptTarget.check(entry, 0, generation);
+    }
+
     @Override
     public void execute(CommandQueue queue, CommandEntry entry) {
-        AbstractTagObject scriptobj = entry.getArgumentObject(queue, 0);
-        String scriptName = scriptobj.toString();
-        List<String> bits = CoreUtilities.split(scriptName, '.', 2);
-        CommandScript script = Denizen2Core.currentScripts.get(CoreUtilities.toLowerCase(bits.get(0)));
+        ScriptTarget target = ScriptTarget.forEntry(queue, entry, 0);
+        CommandScript script = target.getScript(queue.generation);
         if (script == null) {
             queue.handleError(entry, "Invalid script name!");
             return;
@@ -84,8 +86,7 @@ public class RunCommand extends AbstractCommand {
             queue.handleError(entry, "Trying to run a non-task typed script!");
             return;
         }
-        TaskScript task = (TaskScript) script;
-        CommandScriptSection section = task.getSection(bits.size() > 1 ? bits.get(1) : null);
+        CommandScriptSection section = target.getSection(queue.generation);
         if (section == null) {
             queue.handleError(entry, "Invalid script section!");
             return;
@@ -94,8 +95,10 @@ public class RunCommand extends AbstractCommand {
             queue.outGood("Running script: " + ColorSet.emphasis + script.title);
         }
         CommandQueue nq = section.toQueue();
+        nq.generation = queue.generation;
         if (entry.waitFor) {
-            nq.onStop = (nqueue) -> queue.waitFor(null);
+            QueueFuture future = queue.getWaitingFuture();
+            nq.onStop = (nqueue) -> future.complete();
         }
         if (entry.arguments.size() > 1) {
             MapTag defs = MapTag.getFor(queue.error, entry.getArgumentObject(queue, 1));
@@ -16,6 +16,10 @@ import com.denizenscript.denizen2core.tags.objects.IntegerTag;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 import com.denizenscript.denizen2core.utilities.ErrorInducedException;
 import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.metrics.Counter;
+import com.denizenscript.denizen2core.utilities.metrics.Histogram;
+import com.denizenscript.denizen2core.utilities.metrics.Metrics;
 import com.denizenscript.denizen2core.utilities.yaml.StringHolder;
 import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
 
@@ -34,7 +38,10 @@ public abstract class ScriptEvent implements Cloneable {
         }
     }
 
-    public final static List<WorldScript> currentWorldScripts = new ArrayList<>();
+    /**
+     * The world scripts of the current script generation.
+     */
+    public static volatile List<WorldScript> currentWorldScripts = new ArrayList<>();
 
     public static class ScriptEventData {
 
@@ -86,82 +93,132 @@ public abstract class ScriptEvent implements Cloneable {
     }
 
     public void init() {
-        boolean generalDebug = Denizen2Core.getImplementation().generalDebug();
-        usages.clear();
-        for (WorldScript script : currentWorldScripts) {
-            if (!script.contents.contains("events")) {
-                Debug.error("Invalid world script: " + ColorSet.emphasis + script.title + ColorSet.warning + ": missing events section!");
-                continue;
+        applyUsages(buildUsages(currentWorldScripts, Collections.emptyList()));
+    }
+
+    /**
+     * Updates usages for a partial reload: drops any usages from removed world scripts, and adds usages from added ones.
+     * Usages from any other world scripts are kept as-is.
+     */
+    public void reinit(Collection<WorldScript> removed, Collection<WorldScript> added) {
+        applyUsages(buildUsages(added, keptUsages(usages, removed)));
+    }
+
+    /**
+     * Returns the given usages, minus any from the removed world scripts.
+     */
+    public static List<ScriptEventData> keptUsages(List<ScriptEventData> old, Collection<WorldScript> removed) {
+        if (removed.isEmpty()) {
+            return old;
+        }
+        Set<WorldScript> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedSet.addAll(removed);
+        List<ScriptEventData> result = new ArrayList<>(old.size());
+        for (ScriptEventData data : old) {
+            if (!removedSet.contains(data.script)) {
+                result.add(data);
             }
-            YAMLConfiguration eventsBlock = script.contents.getConfigurationSection("events");
-            if (eventsBlock == null) {
-                Debug.error("Invalid world script: " + ColorSet.emphasis + script.title + ColorSet.warning + ": malformed events section!");
+        }
+        return result;
+    }
+
+    /**
+     * Builds a new, sorted usage list from the kept usages plus those of the given world scripts.
+     * Does not change this event, so may be used while building a new script generation off the main thread.
+     */
+    public List<ScriptEventData> buildUsages(Collection<WorldScript> scripts, List<ScriptEventData> kept) {
+        boolean generalDebug = Denizen2Core.getImplementation().generalDebug();
+        List<ScriptEventData> result = new ArrayList<>(kept);
+        for (WorldScript script : scripts) {
+            addUsages(result, script, generalDebug);
+        }
+        result.sort(Comparator.comparingInt((t) -> t.priority));
+        return result;
+    }
+
+    /**
+     * Switches this event to a usage list from buildUsages, enabling or disabling it as needed.
+     */
+    public void applyUsages(List<ScriptEventData> newUsages) {
+        usages = newUsages;
+        updateLoaded();
+    }
+
+    private void addUsages(List<ScriptEventData> target, WorldScript script, boolean generalDebug) {
+        if (!script.contents.contains("events")) {
+            Debug.error("Invalid world script: " + ColorSet.emphasis + script.title + ColorSet.warning + ": missing events section!");
+            return;
+        }
+        YAMLConfiguration eventsBlock = script.contents.getConfigurationSection("events");
+        if (eventsBlock == null) {
+            Debug.error("Invalid world script: " + ColorSet.emphasis + script.title + ColorSet.warning + ": malformed events section!");
+            return;
+        }
+        Set<StringHolder> evts = eventsBlock.getKeys(false);
+        for (StringHolder evt : evts) {
+            if (evt.str.length() < "on ".length()) {
                 continue;
             }
-            Set<StringHolder> evts = eventsBlock.getKeys(false);
-            for (StringHolder evt : evts) {
-                if (evt.str.length() < "on ".length()) {
-                    continue;
-                }
-                ScriptEventData data = new ScriptEventData();
-                try {
-                    data.script = script;
-                    data.rawPath = evt.str.substring("on ".length());
-                    StringBuilder res = new StringBuilder();
-                    for (String possible : CoreUtilities.split(data.rawPath, ' ')) {
-                        List<String> split = CoreUtilities.split(possible, ':', 2);
-                        String low = CoreUtilities.toLowerCase(split.get(0));
-                        if (split.size() > 1) {
-                            String val = split.get(1);
-                            if (low.equals("require")) {
-                                data.requirements.add(Denizen2Core.splitToArgument(val.replace("&dot", ".")
-                                        .replace("&amp", "&"), false, false, this::error));
-                            }
-                            else if (low.equals("ignorecancelled")) {
-                                data.ignoreCancelled = CoreUtilities.toLowerCase(val).equals("true");
-                            }
-                            else if (low.equals("priority")) {
-                                data.priority = (int) IntegerTag.getFor(this::error, val).getInternal();
-                            }
-                            else {
-                                data.switches.put(low, val);
-                            }
+            ScriptEventData data = new ScriptEventData();
+            try {
+                data.script = script;
+                data.rawPath = evt.str.substring("on ".length());
+                StringBuilder res = new StringBuilder();
+                for (String possible : CoreUtilities.split(data.rawPath, ' ')) {
+                    List<String> split = CoreUtilities.split(possible, ':', 2);
+                    String low = CoreUtilities.toLowerCase(split.get(0));
+                    if (split.size() > 1) {
+                        String val = split.get(1);
+                        if (low.equals("require")) {
+                            data.requirements.add(Denizen2Core.splitToArgument(val.replace("&dot", ".")
+                                    .replace("&amp", "&"), false, false, this::error));
+                        }
+                        else if (low.equals("ignorecancelled")) {
+                            data.ignoreCancelled = CoreUtilities.toLowerCase(val).equals("true");
+                        }
+                        else if (low.equals("priority")) {
+                            data.priority = (int) IntegerTag.getFor(this::error, val).getInternal();
                         }
                         else {
-                            res.append(possible).append(" ");
+                            data.switches.put(low, val);
                         }
                     }
-                    data.eventPath = res.toString().trim();
-                }
-                catch (ErrorInducedException ex) {
-                    Debug.error("While managing script event " + ColorSet.emphasis + getName() + ColorSet.warning
-                            + ", tried to process " + ColorSet.emphasis + script.title + "." + evt.str
-                            + ColorSet.warning + ", but got error: " + ex.getMessage());
-                }
-                try {
-                    if (couldMatch(data)) {
-                        usages.add(data);
-                        script.eventsConfirmed.add(evt.str);
-                        if (generalDebug) {
-                            Debug.good("Script event match: " + ColorSet.emphasis + getName()
-                                    + ColorSet.good + " matched for: " + ColorSet.emphasis + script.title + "." + evt.str
-                                    + ColorSet.good + "!");
-                        }
+                    else {
+                        res.append(possible).append(" ");
                     }
                 }
-                catch (ErrorInducedException ex) {
-                    Debug.error("While managing script event " + ColorSet.emphasis + getName() + ColorSet.warning
-                            + ", tried to match " + ColorSet.emphasis + script.title + "." + evt.str
-                            + ColorSet.warning + ", but got error: " + ex.getMessage());
+                data.eventPath = res.toString().trim();
+            }
+            catch (ErrorInducedException ex) {
+                Debug.error("While managing script event " + ColorSet.emphasis + getName() + ColorSet.warning
+                        + ", tried to process " + ColorSet.emphasis + script.title + "." + evt.str
+                        + ColorSet.warning + ", but got error: " + ex.getMessage());
+            }
+            try {
+                if (couldMatch(data)) {
+                    target.add(data);
+                    script.eventsConfirmed.add(evt.str);
+                    if (generalDebug) {
+                        Debug.good("Script event match: " + ColorSet.emphasis + getName()
+                                + ColorSet.good + " matched for: " + ColorSet.emphasis + script.title + "." + evt.str
+                                + ColorSet.good + "!");
+                    }
                 }
             }
+            catch (ErrorInducedException ex) {
+                Debug.error("While managing script event " + ColorSet.emphasis + getName() + ColorSet.warning
+                        + ", tried to match " + ColorSet.emphasis + script.title + "." + evt.str
+                        + ColorSet.warning + ", but got error: " + ex.getMessage());
+            }
         }
+    }
+
+    private void updateLoaded() {
         if (usages.size() > 0) {
             if (!loaded) {
                 loaded = true;
                 enable();
             }
-            sort();
         }
         else if (loaded) {
             loaded = false;
@@ -286,7 +343,19 @@ public abstract class ScriptEvent implements Cloneable {
         }
     }
 
+    private Counter firedMetric = null;
+
+    private Histogram runTimeMetric = null;
+
     public void run() {
+        if (firedMetric == null) {
+            String metricName = "events." + CoreUtilities.toLowerCase(getName());
+            firedMetric = Metrics.counter(metricName + ".fired");
+            runTimeMetric = Metrics.histogram(metricName + ".run_ns");
+        }
+        firedMetric.increment();
+        long start = System.nanoTime();
+        Object recordingEvent = FlightRecording.scriptEvents ? FlightRecording.beginScriptEvent() : null;
         for (ScriptEventData data : usages) {
             try {
                 if (matches(data)) {
@@ -306,6 +375,10 @@ public abstract class ScriptEvent implements Cloneable {
                 }
             }
         }
+        runTimeMetric.recordSince(start);
+        if (recordingEvent != null) {
+            FlightRecording.endScriptEvent(recordingEvent, this);
+        }
     }
 
     public abstract String getName();
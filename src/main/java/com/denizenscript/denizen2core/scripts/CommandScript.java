@@ -3,6 +3,7 @@ package com.denizenscript.denizen2core.scripts;
 import com.denizenscript.denizen2core.commands.CommandScriptSection;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.metrics.RollingStats;
 import com.denizenscript.denizen2core.utilities.yaml.StringHolder;
 import com.denizenscript.denizen2core.DebugMode;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
@@ -21,6 +22,11 @@ public abstract class CommandScript {
 
     public long ticksRan = 0;
 
+    /**
+     * Recent execution statistics of this script, across all its sections.
+     */
+    public final RollingStats recentStats = new RollingStats();
+
     public final HashMap<String, CommandScriptSection> sections = new HashMap<>();
 
     public CommandScript(String name, YAMLConfiguration section) {
@@ -77,7 +83,35 @@ public abstract class CommandScript {
         }
     }
 
+    private Boolean precompiled = null;
+
+    /**
+     * Compiles this script's executable sections ahead of init(), which will then use the result rather than compiling again.
+     * Unlike init(), this is safe to call off the main thread.
+     */
+    public boolean precompile() {
+        precompiled = compileSections();
+        return precompiled;
+    }
+
+    /**
+     * Uses already-compiled executable sections (EG, from the compiled script cache), which init() will then keep.
+     */
+    public void precompile(HashMap<String, CommandScriptSection> compiled) {
+        sections.putAll(compiled);
+        precompiled = true;
+    }
+
     public boolean init() {
+        if (precompiled != null) {
+            boolean result = precompiled;
+            precompiled = null;
+            return result;
+        }
+        return compileSections();
+    }
+
+    private boolean compileSections() {
         for (StringHolder strh : contents.getKeys(true)) {
             Object obj = contents.get(strh.str);
             if (obj instanceof List
@@ -121,4 +155,12 @@ public abstract class CommandScript {
     // -->
 
     public abstract boolean isExecutable(String str);
+
+    /**
+     * Returns whether this script, once compiled, can be kept as-is by an incremental reload when its file is unchanged.
+     * Script types whose init() does anything beyond compiling their own sections should leave this false.
+     */
+    public boolean isReusable() {
+        return false;
+    }
 }
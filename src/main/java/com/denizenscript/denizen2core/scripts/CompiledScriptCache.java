@@ -0,0 +1,508 @@
+package com.denizenscript.denizen2core.scripts;
+
+import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.arguments.*;
+import com.denizenscript.denizen2core.commands.AbstractCommand;
+import com.denizenscript.denizen2core.commands.CommandEntry;
+import com.denizenscript.denizen2core.commands.CommandScriptSection;
+import com.denizenscript.denizen2core.commands.CommandStackEntry;
+import com.denizenscript.denizen2core.commands.commoncommands.DebugInvalidCommand;
+import com.denizenscript.denizen2core.tags.AbstractTagBase;
+import com.denizenscript.denizen2core.tags.AbstractTagObject;
+import com.denizenscript.denizen2core.tags.objects.IntegerTag;
+import com.denizenscript.denizen2core.tags.objects.ListTag;
+import com.denizenscript.denizen2core.tags.objects.MapTag;
+import com.denizenscript.denizen2core.tags.objects.NumberTag;
+import com.denizenscript.denizen2core.tags.objects.TextTag;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.ErrorInducedException;
+import com.denizenscript.denizen2core.utilities.RegexCache;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Stores compiled script sections on disk, so unchanged script files can be loaded without re-parsing their commands and tags.
+ * Each entry is keyed by the content hash of its script file, and is only used if the engine version
+ * and the set of registered commands, tag bases and script types all match those it was written with.
+ * Entry file names are also prefixed by a key for the engine writing them, so engines sharing a cache folder never prune each other's entries.
+ */
+public class CompiledScriptCache {
+
+    /**
+     * Increment this whenever the format written by this class changes.
+     */
+    public final static int FORMAT_VERSION = 1;
+
+    private final static int MAGIC = 0x44325343; // "D2SC"
+
+    private final static String EXTENSION = ".d2sc";
+
+    private final static byte BIT_TEXT = 0, BIT_INTEGER = 1, BIT_NUMBER = 2, BIT_REPARSE = 3, BIT_TAG = 4;
+
+    /**
+     * Returns the cache to use for the current engine state, or null if caching is disabled.
+     * Must be called on the engine's tick thread, as this reads the engine registries.
+     */
+    public static CompiledScriptCache create() {
+        File folder = Denizen2Core.getImplementation().getScriptCacheFolder();
+        if (folder == null) {
+            return null;
+        }
+        return new CompiledScriptCache(folder, fingerprint(), engineKey());
+    }
+
+    /**
+     * Returns a short key for the current engine, from its implementation and scripts folder.
+     */
+    private static String engineKey() {
+        String id = Denizen2Core.getImplementation().getImplementationName() + '\n'
+                + Denizen2Core.getImplementation().getScriptsFolder().getAbsolutePath();
+        return toHex(ScriptFileTracker.hash(id.getBytes(StandardCharsets.UTF_8))).substring(0, 16);
+    }
+
+    private static String toHex(byte[] data) {
+        StringBuilder sb = new StringBuilder(data.length * 2);
+        for (byte b : data) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] fingerprint() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(FORMAT_VERSION).append('\n').append(Denizen2Core.version).append('\n')
+                .append(Denizen2Core.getImplementation().getImplementationName()).append(' ')
+                .append(Denizen2Core.getImplementation().getImplementationVersion()).append('\n');
+        for (Map.Entry<String, AbstractCommand> entry : new TreeMap<>(Denizen2Core.commands).entrySet()) {
+            sb.append("c:").append(entry.getKey()).append('=').append(entry.getValue().getClass().getName()).append('\n');
+        }
+        for (Map.Entry<String, AbstractTagBase> entry : new TreeMap<>(Denizen2Core.tagBases).entrySet()) {
+            sb.append("t:").append(entry.getKey()).append('=').append(entry.getValue().getClass().getName()).append('\n');
+        }
+        for (String type : new TreeSet<>(Denizen2Core.scriptTypeGetters.keySet())) {
+            sb.append("s:").append(type).append('\n');
+        }
+        return ScriptFileTracker.hash(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private final File folder;
+
+    private final byte[] fingerprint;
+
+    private final String prefix;
+
+    public CompiledScriptCache(File cacheFolder, byte[] engineFingerprint, String engineKey) {
+        folder = cacheFolder;
+        fingerprint = engineFingerprint;
+        prefix = engineKey + "-";
+    }
+
+    private File fileFor(byte[] hash) {
+        return new File(folder, prefix + toHex(hash) + EXTENSION);
+    }
+
+    /**
+     * Reads the raw cache entry for a script file's content hash, or returns null if there is none.
+     * May be called from any thread.
+     */
+    public byte[] read(byte[] hash) {
+        File f = fileFor(hash);
+        if (!f.isFile()) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(f.toPath());
+        }
+        catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes any cache entries of this engine not for one of the given content hashes, and any entries from before entries were keyed by engine.
+     * Entries of other engines sharing the cache folder are left alone.
+     */
+    public void prune(Collection<byte[]> hashes) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Set<String> keep = new HashSet<>();
+        for (byte[] hash : hashes) {
+            keep.add(fileFor(hash).getName());
+        }
+        for (File f : files) {
+            String name = f.getName();
+            boolean own = name.startsWith(prefix);
+            boolean legacy = name.indexOf('-') == -1;
+            if ((name.endsWith(EXTENSION) && (own || legacy) && !keep.contains(name)) || (own && name.endsWith(EXTENSION + ".tmp"))) {
+                if (!f.delete()) {
+                    Debug.error("Failed to delete outdated compiled script cache file: " + f.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes a cache entry, returning the compiled sections of each script by script name, then by section name.
+     * Returns null if the entry is stale, corrupt, or does not match the given scripts.
+     * May be called from any thread.
+     */
+    public Map<String, HashMap<String, CommandScriptSection>> decode(byte[] data, Map<String, CommandScript> scripts) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            byte[] print = new byte[fingerprint.length];
+            in.readFully(print);
+            if (!Arrays.equals(print, fingerprint)) {
+                return null;
+            }
+            int scriptCount = in.readInt();
+            if (scriptCount != scripts.size()) {
+                return null;
+            }
+            Map<String, HashMap<String, CommandScriptSection>> result = new HashMap<>();
+            for (int s = 0; s < scriptCount; s++) {
+                String name = readString(in);
+                CommandScript script = scripts.get(name);
+                if (script == null) {
+                    return null;
+                }
+                int sectionCount = in.readInt();
+                HashMap<String, CommandScriptSection> sections = new HashMap<>();
+                for (int i = 0; i < sectionCount; i++) {
+                    String key = readString(in);
+                    String title = readString(in);
+                    CommandEntry[] entries = readEntries(in);
+                    CommandStackEntry cse = new CommandStackEntry(entries, title, script);
+                    cse.setDebugMode(script.getDebugMode());
+                    sections.put(key, new CommandScriptSection(cse));
+                }
+                result.put(name, sections);
+            }
+            return result;
+        }
+        catch (IOException | ErrorInducedException | IndexOutOfBoundsException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cache entry for a script file's content hash, if every script's sections can be cached.
+     * May be called from any thread.
+     */
+    public void write(byte[] hash, Collection<CommandScript> scripts) {
+        for (CommandScript script : scripts) {
+            for (CommandScriptSection section : script.sections.values()) {
+                if (!canCache(section)) {
+                    return;
+                }
+            }
+        }
+        File target = fileFor(hash);
+        File temp = null;
+        try {
+            if (!folder.exists() && !folder.mkdirs()) {
+                return;
+            }
+            temp = File.createTempFile(prefix + "part", EXTENSION + ".tmp", folder);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.write(fingerprint);
+                out.writeInt(scripts.size());
+                for (CommandScript script : scripts) {
+                    writeString(out, script.title);
+                    out.writeInt(script.sections.size());
+                    for (Map.Entry<String, CommandScriptSection> section : script.sections.entrySet()) {
+                        writeString(out, section.getKey());
+                        writeString(out, section.getValue().created.scriptTitle);
+                        writeEntries(out, section.getValue().created.entries);
+                    }
+                }
+            }
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException ex) {
+            Debug.error("Failed to write compiled script cache file: " + target.getName());
+            Debug.exception(ex);
+            if (temp != null && temp.exists()) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns whether a compiled section holds only data this cache knows how to store.
+     * Sections with custom block handling, compile-time special data, or unusual argument types are not cached.
+     */
+    private static boolean canCache(CommandScriptSection section) {
+        if (section == null) {
+            return false;
+        }
+        CommandEntry[] entries = section.created.entries;
+        for (CommandEntry entry : entries) {
+            if (entry.command.blockIsCustom() || entry.specialLocalData != null) {
+                return false;
+            }
+            for (Argument arg : entry.arguments) {
+                if (!canCache(arg)) {
+                    return false;
+                }
+            }
+            for (Argument arg : entry.namedArgs.values()) {
+                if (!canCache(arg)) {
+                    return false;
+                }
+            }
+            if (entry.innerCommandBlock != null) {
+                for (CommandEntry inner : entry.innerCommandBlock) {
+                    if (inner.ownIndex < 0 || inner.ownIndex >= entries.length || entries[inner.ownIndex] != inner) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean canCache(Argument arg) {
+        if (arg == null) {
+            return true;
+        }
+        for (ArgumentBit bit : arg.bits) {
+            if (bit instanceof TextArgumentBit) {
+                AbstractTagObject value = ((TextArgumentBit) bit).value;
+                if (!(value instanceof TextTag || value instanceof IntegerTag || value instanceof NumberTag
+                        || value instanceof ListTag || value instanceof MapTag)) {
+                    return false;
+                }
+            }
+            else if (bit instanceof TagArgumentBit) {
+                TagArgumentBit tab = (TagArgumentBit) bit;
+                for (TagBit tagBit : tab.bits) {
+                    if (!canCache(tagBit.variable)) {
+                        return false;
+                    }
+                }
+                if (!canCache(tab.getFallback())) {
+                    return false;
+                }
+            }
+            else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] data = str.getBytes(CoreUtilities.encoding);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > in.available()) {
+            throw new IOException("Invalid string length");
+        }
+        byte[] data = new byte[len];
+        in.readFully(data);
+        return new String(data, CoreUtilities.encoding);
+    }
+
+    private static void writeEntries(DataOutputStream out, CommandEntry[] entries) throws IOException {
+        out.writeInt(entries.length);
+        for (CommandEntry entry : entries) {
+            out.writeBoolean(entry.command != DebugInvalidCommand.instance);
+            writeString(out, entry.cmdName);
+            writeString(out, entry.scriptName);
+            writeString(out, entry.originalLine);
+            out.writeBoolean(entry.waitFor);
+            out.writeInt(entry.blockStart);
+            out.writeInt(entry.blockEnd);
+            out.writeInt(entry.ownIndex);
+            out.writeInt(entry.arguments.size());
+            for (Argument arg : entry.arguments) {
+                writeArgument(out, arg);
+            }
+            out.writeInt(entry.namedArgs.size());
+            for (Map.Entry<String, Argument> named : entry.namedArgs.entrySet()) {
+                writeString(out, named.getKey());
+                writeArgument(out, named.getValue());
+            }
+            if (entry.innerCommandBlock == null) {
+                out.writeInt(-1);
+            }
+            else {
+                out.writeInt(entry.innerCommandBlock.size());
+                for (CommandEntry inner : entry.innerCommandBlock) {
+                    out.writeInt(inner.ownIndex);
+                }
+            }
+        }
+    }
+
+    private static CommandEntry[] readEntries(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available()) {
+            throw new IOException("Invalid entry count");
+        }
+        CommandEntry[] entries = new CommandEntry[count];
+        int[][] innerBlocks = new int[count][];
+        for (int i = 0; i < count; i++) {
+            boolean known = in.readBoolean();
+            String cmdName = readString(in);
+            String scriptName = readString(in);
+            String originalLine = readString(in);
+            boolean waitFor = in.readBoolean();
+            int blockStart = in.readInt();
+            int blockEnd = in.readInt();
+            int ownIndex = in.readInt();
+            int argCount = in.readInt();
+            List<Argument> args = new ArrayList<>(Math.max(0, Math.min(argCount, 64)));
+            for (int a = 0; a < argCount; a++) {
+                args.add(readArgument(in));
+            }
+            int namedCount = in.readInt();
+            HashMap<String, Argument> nameds = new HashMap<>();
+            for (int a = 0; a < namedCount; a++) {
+                String key = readString(in);
+                nameds.put(key, readArgument(in));
+            }
+            AbstractCommand command = known ? Denizen2Core.commands.get(CoreUtilities.toLowerCase(cmdName)) : DebugInvalidCommand.instance;
+            if (command == null) {
+                throw new IOException("Unknown command: " + cmdName);
+            }
+            CommandEntry entry = new CommandEntry(scriptName, command, args, nameds, originalLine, cmdName, waitFor);
+            entry.blockStart = blockStart;
+            entry.blockEnd = blockEnd;
+            entry.ownIndex = ownIndex;
+            entries[i] = entry;
+            int innerCount = in.readInt();
+            if (innerCount >= 0) {
+                if (innerCount > in.available()) {
+                    throw new IOException("Invalid block size");
+                }
+                innerBlocks[i] = new int[innerCount];
+                for (int b = 0; b < innerCount; b++) {
+                    innerBlocks[i][b] = in.readInt();
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (innerBlocks[i] != null) {
+                List<CommandEntry> block = new ArrayList<>(innerBlocks[i].length);
+                for (int index : innerBlocks[i]) {
+                    block.add(entries[index]);
+                }
+                entries[i].innerCommandBlock = block;
+            }
+        }
+        return entries;
+    }
+
+    private static void writeArgument(DataOutputStream out, Argument arg) throws IOException {
+        if (arg == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        out.writeBoolean(arg.getQuoted());
+        out.writeBoolean(arg.getQuoteMode());
+        out.writeInt(arg.bits.size());
+        for (ArgumentBit bit : arg.bits) {
+            if (bit instanceof TextArgumentBit) {
+                TextArgumentBit text = (TextArgumentBit) bit;
+                if (text.value instanceof IntegerTag) {
+                    out.writeByte(BIT_INTEGER);
+                    out.writeLong(((IntegerTag) text.value).getInternal());
+                }
+                else if (text.value instanceof NumberTag) {
+                    out.writeByte(BIT_NUMBER);
+                    out.writeDouble(((NumberTag) text.value).getInternal());
+                }
+                else if (text.value instanceof TextTag) {
+                    out.writeByte(BIT_TEXT);
+                    writeString(out, ((TextTag) text.value).getInternal());
+                }
+                else {
+                    out.writeByte(BIT_REPARSE);
+                    writeString(out, text.value.toString());
+                }
+                out.writeBoolean(text.wasQuoted);
+            }
+            else {
+                TagArgumentBit tab = (TagArgumentBit) bit;
+                out.writeByte(BIT_TAG);
+                out.writeInt(tab.bits.length);
+                for (TagBit tagBit : tab.bits) {
+                    writeString(out, tagBit.key);
+                    writeArgument(out, tagBit.variable);
+                }
+                writeArgument(out, tab.getFallback());
+            }
+        }
+    }
+
+    private static Argument readArgument(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Argument arg = new Argument();
+        arg.setQuoted(in.readBoolean());
+        arg.setQuoteMode(in.readBoolean());
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+            switch (type) {
+                case BIT_TEXT:
+                    arg.addBit(new TextArgumentBit(new TextTag(readString(in)), in.readBoolean()));
+                    break;
+                case BIT_INTEGER:
+                    arg.addBit(new TextArgumentBit(new IntegerTag(in.readLong()), in.readBoolean()));
+                    break;
+                case BIT_NUMBER:
+                    arg.addBit(new TextArgumentBit(new NumberTag(in.readDouble()), in.readBoolean()));
+                    break;
+                case BIT_REPARSE:
+                    String text = readString(in);
+                    arg.addBit(new TextArgumentBit(text, in.readBoolean()));
+                    break;
+                case BIT_TAG:
+                    int bitCount = in.readInt();
+                    if (bitCount < 0 || bitCount > in.available()) {
+                        throw new IOException("Invalid tag length");
+                    }
+                    TagBit[] bits = new TagBit[bitCount];
+                    for (int b = 0; b < bitCount; b++) {
+                        String key = readString(in);
+                        bits[b] = new TagBit(key, readArgument(in));
+                        RegexCache.tryPrecompile(bits[b]);
+                    }
+                    TagArgumentBit tab = new TagArgumentBit(bits);
+                    if (bitCount > 0) {
+                        AbstractTagBase start = Denizen2Core.tagBases.get(CoreUtilities.toLowerCase(bits[0].key));
+                        if (start == null) {
+                            throw new IOException("Unknown tag base: " + bits[0].key);
+                        }
+                        tab.setStart(start);
+                    }
+                    tab.setFallback(readArgument(in));
+                    arg.addBit(tab);
+                    break;
+                default:
+                    throw new IOException("Unknown argument bit type: " + type);
+            }
+        }
+        return arg;
+    }
+}
@@ -0,0 +1,286 @@
+package com.denizenscript.denizen2core.scripts;
+
+import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.commands.CommandScriptSection;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.yaml.StringHolder;
+import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Tracks a single script file through the stages of loading it into a script generation.
+ * The read and compile stages may run on any thread, and may run for many files at once.
+ * The construct and register stages run on the engine's tick thread, in file order, as they run script type code.
+ * Debug output from each stage is held back and shown in order during the register stage.
+ */
+public class ScriptFileLoad {
+
+    private static class PendingScript {
+
+        public final String name;
+
+        public String type;
+
+        public CommandScript script = null;
+
+        public final List<Runnable> output = new ArrayList<>();
+
+        public PendingScript(String scriptName) {
+            name = scriptName;
+        }
+    }
+
+    public final String fileName;
+
+    public final String filePath;
+
+    private final File file;
+
+    private final ScriptFileTracker.FileRecord oldRecord;
+
+    private String contents;
+
+    private long modified;
+
+    private long size;
+
+    private byte[] hash;
+
+    private List<CommandScript> reused = null;
+
+    private YAMLConfiguration config = null;
+
+    private final List<Runnable> output = new ArrayList<>();
+
+    private final List<PendingScript> scripts = new ArrayList<>();
+
+    private boolean hadErrors = false;
+
+    /**
+     * Prepares to load a script file. If a record of its last load is given, its scripts may be kept if the file is unchanged.
+     */
+    public ScriptFileLoad(File scriptFile, ScriptFileTracker.FileRecord old) {
+        file = scriptFile;
+        fileName = scriptFile.getName();
+        filePath = scriptFile.getPath();
+        oldRecord = old != null && old.isReusable() ? old : null;
+    }
+
+    /**
+     * Prepares to keep the scripts of a file known to be unchanged since its last load, without checking the file again.
+     * If the file's record can not be reused, the file is loaded as normal.
+     */
+    public static ScriptFileLoad unchanged(File scriptFile, ScriptFileTracker.FileRecord old) {
+        ScriptFileLoad load = new ScriptFileLoad(scriptFile, old);
+        if (load.oldRecord != null) {
+            load.modified = old.lastModified;
+            load.size = old.size;
+            load.hash = old.hash;
+            load.reused = old.scripts;
+        }
+        return load;
+    }
+
+    /**
+     * Prepares to load script contents that did not come from a file.
+     */
+    public ScriptFileLoad(String name, String scriptContents) {
+        file = null;
+        fileName = name;
+        filePath = name;
+        oldRecord = null;
+        contents = scriptContents;
+    }
+
+    /**
+     * Reads, hashes and parses the file. May run on any thread.
+     */
+    public void read() {
+        if (reused != null) {
+            return;
+        }
+        Debug.startBuffering(output);
+        try {
+            if (file != null) {
+                modified = file.lastModified();
+                size = file.length();
+                if (oldRecord != null && oldRecord.sameStamp(modified, size)) {
+                    hash = oldRecord.hash;
+                    reused = oldRecord.scripts;
+                    return;
+                }
+                byte[] data = Files.readAllBytes(file.toPath());
+                hash = ScriptFileTracker.hash(data);
+                if (oldRecord != null && oldRecord.sameHash(hash)) {
+                    reused = oldRecord.scripts;
+                    return;
+                }
+                contents = new String(data, CoreUtilities.encoding);
+            }
+            config = YAMLConfiguration.load(ScriptHelper.clearComments(contents));
+            contents = null;
+            if (config == null) {
+                hadErrors = true;
+                Debug.error("Invalid YAML for script '" + ColorSet.emphasis + fileName + ColorSet.warning
+                        + "'... the script file may be empty, or unable to load entirely. If it's intentionally empty, "
+                        + "change its extension to '.disable'!");
+            }
+        }
+        catch (Exception ex) {
+            config = null;
+            hadErrors = true;
+            Debug.error("Failed to load script: " + ColorSet.emphasis + fileName);
+            Debug.exception(ex);
+        }
+        finally {
+            Debug.stopBuffering();
+        }
+    }
+
+    /**
+     * Creates the script objects for each script in the file. Must run on the engine's tick thread.
+     */
+    public void construct() {
+        if (config == null) {
+            return;
+        }
+        for (StringHolder strh : config.getKeys(false)) {
+            PendingScript pending = new PendingScript(strh.low);
+            scripts.add(pending);
+            Debug.startBuffering(pending.output);
+            try {
+                YAMLConfiguration section = config.getConfigurationSection(strh.str);
+                pending.type = CoreUtilities.toLowerCase(section.getString("type", "_not set_"));
+                Function2<String, YAMLConfiguration, CommandScript> getter = Denizen2Core.scriptTypeGetters.get(pending.type);
+                if (getter == null) {
+                    hadErrors = true;
+                    Debug.error("Unknown type '" + ColorSet.emphasis + pending.type + ColorSet.warning + "' for script '"
+                            + ColorSet.emphasis + pending.name + ColorSet.warning + "' ... see documentation regarding valid script types!");
+                    continue;
+                }
+                pending.script = getter.apply(pending.name, section);
+            }
+            catch (Exception ex) {
+                hadErrors = true;
+                Debug.error("Failed to load script: " + ColorSet.emphasis + fileName);
+                Debug.exception(ex);
+                pending.script = null;
+            }
+            finally {
+                Debug.stopBuffering();
+            }
+        }
+    }
+
+    /**
+     * Compiles the executable sections of each script in the file, or takes them from its compiled copy. May run on any thread.
+     */
+    public void compile(CompiledScriptCache cache) {
+        Map<String, CommandScript> constructed = new LinkedHashMap<>();
+        for (PendingScript pending : scripts) {
+            if (pending.script != null) {
+                constructed.put(pending.name, pending.script);
+            }
+        }
+        byte[] cached = cache != null && hash != null && file != null && !constructed.isEmpty() ? cache.read(hash) : null;
+        if (cached != null) {
+            Map<String, HashMap<String, CommandScriptSection>> decoded;
+            try {
+                decoded = cache.decode(cached, constructed);
+            }
+            catch (Exception ex) {
+                decoded = null;
+            }
+            if (decoded != null) {
+                for (PendingScript pending : scripts) {
+                    if (pending.script != null) {
+                        pending.script.precompile(decoded.get(pending.name));
+                    }
+                }
+                return;
+            }
+        }
+        boolean success = true;
+        for (PendingScript pending : scripts) {
+            if (pending.script == null) {
+                continue;
+            }
+            Debug.startBuffering(pending.output);
+            try {
+                if (!pending.script.precompile()) {
+                    success = false;
+                }
+            }
+            catch (Exception ex) {
+                Debug.error("Failed to load script: " + ColorSet.emphasis + fileName);
+                Debug.exception(ex);
+                pending.script = null;
+                success = false;
+            }
+            finally {
+                Debug.stopBuffering();
+            }
+        }
+        if (!success) {
+            hadErrors = true;
+        }
+        if (success && cache != null && hash != null && file != null) {
+            Debug.startBuffering(output);
+            try {
+                cache.write(hash, constructed.values());
+            }
+            finally {
+                Debug.stopBuffering();
+            }
+        }
+    }
+
+    /**
+     * Shows held debug output, initializes each script and adds it to the generation. Must run on the engine's tick thread.
+     * Returns the record of what the file now contains.
+     */
+    public ScriptFileTracker.FileRecord register(ScriptGeneration generation) {
+        Debug.replay(output);
+        if (reused != null) {
+            for (CommandScript script : reused) {
+                generation.addScript(script);
+            }
+            return new ScriptFileTracker.FileRecord(modified, size, hash, reused, false);
+        }
+        List<CommandScript> loaded = new ArrayList<>();
+        for (PendingScript pending : scripts) {
+            Debug.replay(pending.output);
+            if (pending.script == null) {
+                continue;
+            }
+            try {
+                if (pending.script.init()) {
+                    if (pending.script.sections.containsValue(null)) {
+                        // A section failed to compile, and has already reported why.
+                        hadErrors = true;
+                    }
+                    Debug.good("Loaded script '" + ColorSet.emphasis + pending.name + ColorSet.good + "'");
+                    generation.addScript(pending.script);
+                    loaded.add(pending.script);
+                }
+                else {
+                    hadErrors = true;
+                    Debug.error("Failed to load script '" + ColorSet.emphasis + pending.name + ColorSet.warning
+                            + "'! See documentation regarding scripts of type " + ColorSet.emphasis + pending.type);
+                }
+            }
+            catch (Exception ex) {
+                hadErrors = true;
+                Debug.error("Failed to load script: " + ColorSet.emphasis + fileName);
+                Debug.exception(ex);
+            }
+        }
+        return new ScriptFileTracker.FileRecord(modified, size, hash, loaded, hadErrors);
+    }
+}
@@ -0,0 +1,70 @@
+package com.denizenscript.denizen2core.scripts;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Remembers what each script file contained when it was last loaded, so unchanged files can skip recompiling.
+ */
+public class ScriptFileTracker {
+
+    public static class FileRecord {
+
+        public final long lastModified;
+
+        public final long size;
+
+        public final byte[] hash;
+
+        public final List<CommandScript> scripts;
+
+        /**
+         * Whether any errors were reported while loading this file.
+         */
+        public final boolean hadErrors;
+
+        public FileRecord(long modified, long fileSize, byte[] fileHash, List<CommandScript> fileScripts, boolean errors) {
+            lastModified = modified;
+            size = fileSize;
+            hash = fileHash;
+            scripts = fileScripts;
+            hadErrors = errors;
+        }
+
+        public boolean sameStamp(long modified, long fileSize) {
+            return lastModified == modified && size == fileSize;
+        }
+
+        public boolean sameHash(byte[] fileHash) {
+            return Arrays.equals(hash, fileHash);
+        }
+
+        /**
+         * Returns whether every script from this file can be kept as-is.
+         * A file that loaded with errors, or without any scripts, is always loaded again, so its errors show again.
+         */
+        public boolean isReusable() {
+            if (hadErrors || scripts.isEmpty()) {
+                return false;
+            }
+            for (CommandScript script : scripts) {
+                if (!script.isReusable()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public static byte[] hash(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(ex);
+        }
+    }
+}
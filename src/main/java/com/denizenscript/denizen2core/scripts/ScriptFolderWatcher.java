@@ -0,0 +1,137 @@
+package com.denizenscript.denizen2core.scripts;
+
+import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches the scripts folder for changes, and starts a background reload of changed files once changes stop for a moment.
+ * Only the changed files are reloaded, unless the changes can not be tracked (EG, a folder was removed, or too many changes happened at once),
+ * in which case the whole folder is checked.
+ */
+public class ScriptFolderWatcher {
+
+    private final Path folder;
+
+    private final long debounceMillis;
+
+    private final WatchService watcher;
+
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    public ScriptFolderWatcher(File scriptsFolder, long debounce) throws IOException {
+        folder = scriptsFolder.toPath();
+        debounceMillis = debounce;
+        watcher = folder.getFileSystem().newWatchService();
+        registerAll(folder);
+        thread = new Thread(this::run, "Denizen2 Script Watcher");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        thread.interrupt();
+        try {
+            watcher.close();
+        }
+        catch (IOException ex) {
+            Debug.exception(ex);
+        }
+    }
+
+    private void registerAll(Path start) throws IOException {
+        Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                keys.put(dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY), dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Adds every script file within a newly created folder.
+     */
+    private void addAll(Path start, Set<File> changed) throws IOException {
+        try (Stream<Path> paths = Files.walk(start, FileVisitOption.FOLLOW_LINKS)) {
+            paths.filter((p) -> CoreUtilities.toLowerCase(p.toString()).endsWith(".dsc")).forEach((p) -> changed.add(p.toFile()));
+        }
+    }
+
+    private void run() {
+        boolean anyChange = false;
+        boolean rescan = false;
+        Set<File> changed = new HashSet<>();
+        while (running) {
+            WatchKey key;
+            try {
+                key = anyChange ? watcher.poll(debounceMillis, TimeUnit.MILLISECONDS) : watcher.take();
+            }
+            catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+            if (key == null) {
+                // No further changes within the debounce window: reload.
+                if (rescan) {
+                    Denizen2Core.reloadInBackground(true);
+                }
+                else {
+                    Denizen2Core.reloadInBackground(new ArrayList<>(changed));
+                }
+                anyChange = false;
+                rescan = false;
+                changed.clear();
+                continue;
+            }
+            Path dir = keys.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                    anyChange = true;
+                    rescan = true;
+                    continue;
+                }
+                Path path = dir.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    try {
+                        registerAll(path);
+                        addAll(path, changed);
+                    }
+                    catch (IOException ex) {
+                        Debug.exception(ex);
+                        rescan = true;
+                    }
+                    anyChange = true;
+                }
+                else if (CoreUtilities.toLowerCase(path.toString()).endsWith(".dsc")) {
+                    changed.add(path.toFile());
+                    anyChange = true;
+                }
+                else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE && keys.containsValue(path)) {
+                    // A watched folder was removed, along with any script files in it.
+                    anyChange = true;
+                    rescan = true;
+                }
+            }
+            if (!key.reset()) {
+                keys.remove(key);
+            }
+        }
+    }
+}
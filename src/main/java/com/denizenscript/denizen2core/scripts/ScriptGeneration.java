@@ -0,0 +1,366 @@
+package com.denizenscript.denizen2core.scripts;
+
+import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.DenizenEngine;
+import com.denizenscript.denizen2core.commands.CommandEntry;
+import com.denizenscript.denizen2core.commands.CommandScriptSection;
+import com.denizenscript.denizen2core.events.ScriptEvent;
+import com.denizenscript.denizen2core.scripts.commontypes.WorldScript;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
+import com.denizenscript.denizen2core.utilities.debugging.FlightRecording;
+import com.denizenscript.denizen2core.utilities.yaml.StringHolder;
+import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * One complete, loaded set of scripts.
+ * A reload builds a whole new generation (reading and compiling possibly off the main thread), then makes it current in a single step.
+ * Queues keep the generation they started in, so they finish running against the scripts they started with.
+ */
+public class ScriptGeneration {
+
+    private final static AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Returns the generation new queues and script lookups use, in the engine running on the calling thread.
+     */
+    public static ScriptGeneration current() {
+        return DenizenEngine.current().generation;
+    }
+
+    public final long id;
+
+    /**
+     * The ID of the generation that was current when this one started building.
+     */
+    public final long basedOn;
+
+    public final HashMap<String, CommandScript> scripts = new HashMap<>();
+
+    public final List<WorldScript> worldScripts = new ArrayList<>();
+
+    /**
+     * All script files this generation was loaded from, by path.
+     */
+    public final HashMap<String, ScriptFileTracker.FileRecord> records = new LinkedHashMap<>();
+
+    /**
+     * The usages each script event will have once this generation is current.
+     */
+    public final Map<ScriptEvent, List<ScriptEvent.ScriptEventData>> usages = new IdentityHashMap<>();
+
+    /**
+     * Debug output from building this generation, to be shown when it becomes current.
+     */
+    public final List<Runnable> output = new ArrayList<>();
+
+    /**
+     * Whether this generation was built by reloading only changed script files.
+     */
+    public boolean onlyChanged = false;
+
+    /**
+     * The paths of the only script files that may have changed since the previous generation, or null if the whole scripts folder was checked.
+     */
+    public Set<String> changedFiles = null;
+
+    /**
+     * How many script file changes reported to the engine this generation has read, see DenizenEngine.reloadInBackground.
+     */
+    public long fileChangesRead = 0;
+
+    public ScriptGeneration(long basedOnId) {
+        id = nextId.getAndIncrement();
+        basedOn = basedOnId;
+    }
+
+    /**
+     * The stages of building a generation, in order.
+     * Reading and compiling may run off the main thread, while constructing and finishing must run on the engine's tick thread,
+     * as they run script type getters, script init() and command load hooks, and index script events.
+     */
+    public enum Stage {
+        READ,
+        CONSTRUCTED,
+        COMPILED,
+        FINISHED
+    }
+
+    private Stage stage = null;
+
+    private ScriptGeneration previous;
+
+    private List<ScriptFileLoad> files = new ArrayList<>();
+
+    private CompiledScriptCache cache = null;
+
+    /**
+     * Returns the last stage this generation completed.
+     */
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Builds a new generation from the scripts folder, running every stage on the calling thread, which must be the engine's tick thread.
+     * If onlyChanged is set, script files unchanged since the previous generation keep their compiled scripts,
+     * and only script events of added or removed world scripts are re-indexed.
+     */
+    public static ScriptGeneration build(ScriptGeneration previous, boolean onlyChanged) {
+        ScriptGeneration generation = read(previous, onlyChanged);
+        generation.construct();
+        generation.compile();
+        generation.finish();
+        return generation;
+    }
+
+    /**
+     * Starts building a new generation: finds, reads and parses the script files.
+     * Does not change any engine state or run any script type code, so may be run off the main thread.
+     * Follow with construct, compile, and finish.
+     */
+    public static ScriptGeneration read(ScriptGeneration previous, boolean onlyChanged) {
+        return read(previous, onlyChanged, null);
+    }
+
+    /**
+     * Starts building a new generation like read(previous, true), but trusts that only the given script files
+     * (by path, as in records) may have changed, added or removed, so no other files are checked.
+     */
+    public static ScriptGeneration read(ScriptGeneration previous, Set<String> changedFiles) {
+        return read(previous, true, changedFiles);
+    }
+
+    private static ScriptGeneration read(ScriptGeneration previous, boolean onlyChanged, Set<String> changedFiles) {
+        ScriptGeneration generation = new ScriptGeneration(previous.id);
+        generation.previous = previous;
+        generation.onlyChanged = onlyChanged;
+        generation.changedFiles = changedFiles;
+        generation.runStage(Stage.READ, "read", generation::readFiles);
+        return generation;
+    }
+
+    /**
+     * Creates the script objects of each read file. Must run on the engine's tick thread.
+     */
+    public void construct() {
+        runStage(Stage.CONSTRUCTED, "construct", () -> {
+            cache = CompiledScriptCache.create();
+            for (ScriptFileLoad file : files) {
+                file.construct();
+            }
+        });
+    }
+
+    /**
+     * Compiles the constructed scripts, or takes them from the compiled script cache.
+     * Does not change any engine state or run any script type code, so may be run off the main thread.
+     */
+    public void compile() {
+        runStage(Stage.COMPILED, "compile", () -> files.parallelStream().forEach(file -> file.compile(cache)));
+    }
+
+    /**
+     * Initializes and adds each compiled script, runs the command load hooks, and indexes script events.
+     * Must run on the engine's tick thread. The generation is then ready to publish.
+     */
+    public void finish() {
+        runStage(Stage.FINISHED, "finish", this::finishLoad);
+        files = null;
+        cache = null;
+        previous = null;
+    }
+
+    private void runStage(Stage next, String name, Runnable action) {
+        Object recordingEvent = FlightRecording.reloads ? FlightRecording.beginReload() : null;
+        Debug.startBuffering(output);
+        try {
+            action.run();
+        }
+        catch (Exception ex) {
+            Debug.exception(ex);
+        }
+        finally {
+            Debug.stopBuffering();
+        }
+        stage = next;
+        if (recordingEvent != null) {
+            FlightRecording.endReload(recordingEvent, name, onlyChanged, scripts.size());
+        }
+    }
+
+    private void readFiles() {
+        if (changedFiles != null) {
+            readChangedFiles();
+            return;
+        }
+        File folder = Denizen2Core.getImplementation().getScriptsFolder();
+        if (!folder.exists()) {
+            Debug.error("Scripts folder non-existent! Something may have gone wrong during engine setup. Check file permissions!");
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(folder.toPath(), FileVisitOption.FOLLOW_LINKS)) {
+            Iterator<Path> pathi = paths.iterator();
+            while (pathi.hasNext()) {
+                Path p = pathi.next();
+                if (Files.isDirectory(p)) {
+                    continue;
+                }
+                if (!CoreUtilities.toLowerCase(p.toString()).endsWith(".dsc")) {
+                    if (!CoreUtilities.toLowerCase(p.toString()).endsWith(".disable")) {
+                        Debug.error("File with path in scripts folder '" + ColorSet.emphasis + p.toString() + ColorSet.warning + "' is invalid. "
+                                + "Script files must end in .dsc, ignored files must end in .disable");
+                    }
+                    continue;
+                }
+                File f = p.toFile();
+                if (f.exists() && !f.isDirectory()) {
+                    files.add(new ScriptFileLoad(f, onlyChanged ? previous.records.get(f.getPath()) : null));
+                }
+            }
+        }
+        catch (IOException ex) {
+            Debug.exception(ex);
+        }
+        files.parallelStream().forEach(ScriptFileLoad::read);
+    }
+
+    private void readChangedFiles() {
+        for (Map.Entry<String, ScriptFileTracker.FileRecord> entry : previous.records.entrySet()) {
+            File f = new File(entry.getKey());
+            if (!changedFiles.contains(entry.getKey())) {
+                files.add(ScriptFileLoad.unchanged(f, entry.getValue()));
+            }
+            else if (f.isFile()) {
+                files.add(new ScriptFileLoad(f, entry.getValue()));
+            }
+        }
+        for (String path : new TreeSet<>(changedFiles)) {
+            File f = new File(path);
+            if (!previous.records.containsKey(path) && f.isFile() && CoreUtilities.toLowerCase(path).endsWith(".dsc")) {
+                files.add(new ScriptFileLoad(f, null));
+            }
+        }
+        files.parallelStream().forEach(ScriptFileLoad::read);
+    }
+
+    private void finishLoad() {
+        List<byte[]> hashes = new ArrayList<>();
+        for (ScriptFileLoad file : files) {
+            ScriptFileTracker.FileRecord record = file.register(this);
+            records.put(file.filePath, record);
+            if (record.hash != null) {
+                hashes.add(record.hash);
+            }
+        }
+        if (cache != null) {
+            cache.prune(hashes);
+        }
+        for (CommandScript script : scripts.values()) {
+            for (CommandScriptSection section : script.sections.values()) {
+                if (section == null) {
+                    continue;
+                }
+                for (CommandEntry entry : section.created.entries) {
+                    entry.command.onScriptsLoaded(entry, this);
+                }
+            }
+        }
+        List<WorldScript> changedWorldScripts;
+        if (onlyChanged) {
+            Set<WorldScript> oldSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            oldSet.addAll(previous.worldScripts);
+            Set<WorldScript> newSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            newSet.addAll(worldScripts);
+            List<WorldScript> removed = new ArrayList<>();
+            for (WorldScript script : previous.worldScripts) {
+                if (!newSet.contains(script)) {
+                    removed.add(script);
+                }
+            }
+            changedWorldScripts = new ArrayList<>();
+            for (WorldScript script : worldScripts) {
+                if (!oldSet.contains(script)) {
+                    changedWorldScripts.add(script);
+                }
+            }
+            for (ScriptEvent event : Denizen2Core.events) {
+                List<ScriptEvent.ScriptEventData> old = previous.usages.get(event);
+                if (old == null) {
+                    usages.put(event, event.buildUsages(worldScripts, Collections.emptyList()));
+                }
+                else {
+                    usages.put(event, event.buildUsages(changedWorldScripts, ScriptEvent.keptUsages(old, removed)));
+                }
+            }
+        }
+        else {
+            changedWorldScripts = worldScripts;
+            for (ScriptEvent event : Denizen2Core.events) {
+                usages.put(event, event.buildUsages(worldScripts, Collections.emptyList()));
+            }
+        }
+        for (WorldScript script : changedWorldScripts) {
+            YAMLConfiguration eventsSection = script.contents.getConfigurationSection("events");
+            if (eventsSection == null) {
+                continue;
+            }
+            for (StringHolder evt : eventsSection.getKeys(false)) {
+                if (!script.eventsConfirmed.contains(evt.str)) {
+                    Debug.error("Script event went unmatched: " + ColorSet.emphasis + script.title + ".events." + evt.str
+                            + ColorSet.warning + "!");
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a loaded script to this generation.
+     */
+    public void addScript(CommandScript script) {
+        scripts.put(script.title, script);
+        if (script instanceof WorldScript) {
+            worldScripts.add((WorldScript) script);
+        }
+    }
+
+    /**
+     * Makes this generation current in the engine running on the calling thread.
+     */
+    public void publish() {
+        publish(DenizenEngine.current());
+    }
+
+    /**
+     * Makes this generation current in the given engine: shows its held debug output,
+     * and for the default engine, switches every script event to its usages.
+     * Must run on the engine's thread.
+     */
+    public void publish(DenizenEngine engine) {
+        engine.generation = this;
+        Debug.replay(output);
+        if (!engine.isDefault()) {
+            return;
+        }
+        ScriptEvent.currentWorldScripts = worldScripts;
+        for (ScriptEvent event : Denizen2Core.events) {
+            List<ScriptEvent.ScriptEventData> eventUsages = usages.get(event);
+            if (eventUsages == null) {
+                // Registered while this generation was being built.
+                eventUsages = event.buildUsages(worldScripts, Collections.emptyList());
+                usages.put(event, eventUsages);
+            }
+            event.applyUsages(eventUsages);
+        }
+    }
+}
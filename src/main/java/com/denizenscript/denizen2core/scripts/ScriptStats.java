@@ -0,0 +1,54 @@
+package com.denizenscript.denizen2core.scripts;
+
+import com.denizenscript.denizen2core.utilities.metrics.RollingStats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports on recent script execution statistics, for finding which scripts are busiest right now.
+ */
+public class ScriptStats {
+
+    public static class Entry {
+
+        public final CommandScript script;
+
+        public final RollingStats.Window window;
+
+        public Entry(CommandScript script, RollingStats.Window window) {
+            this.script = script;
+            this.window = window;
+        }
+    }
+
+    /**
+     * Returns every current script that ran within the last given number of seconds, most time used first.
+     */
+    public static List<Entry> topScripts(int seconds) {
+        List<Entry> entries = new ArrayList<>();
+        for (CommandScript script : ScriptGeneration.current().scripts.values()) {
+            RollingStats.Window window = script.recentStats.getWindow(seconds);
+            if (window.runs > 0) {
+                entries.add(new Entry(script, window));
+            }
+        }
+        entries.sort((a, b) -> Long.compare(b.window.nsUsed, a.window.nsUsed));
+        return entries;
+    }
+
+    /**
+     * Returns a text report of the scripts that used the most time within the last given number of seconds.
+     */
+    public static String report(int seconds, int count) {
+        List<Entry> entries = topScripts(seconds);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Top ").append(Math.min(count, entries.size())).append(" scripts of the last ").append(seconds).append(" seconds:");
+        for (int i = 0; i < count && i < entries.size(); i++) {
+            RollingStats.Window window = entries.get(i).window;
+            sb.append("\n").append(String.format("%10.3fms used %8d runs %10.3fms p50 %10.3fms p99  ", window.nsUsed / 1000000.0, window.runs,
+                    window.percentileNanos(50) / 1000000.0, window.percentileNanos(99) / 1000000.0)).append(entries.get(i).script.title);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,181 @@
+package com.denizenscript.denizen2core.scripts.commontypes;
+
+import com.denizenscript.denizen2core.tags.AbstractTagObject;
+import com.denizenscript.denizen2core.tags.handlers.EscapeTagBase;
+import com.denizenscript.denizen2core.tags.objects.ListTag;
+import com.denizenscript.denizen2core.tags.objects.MapTag;
+import com.denizenscript.denizen2core.utilities.metrics.Metrics;
+
+import java.util.*;
+
+/**
+ * Remembers the determinations of a procedure script by its input, for procedure scripts with the "cache" option.
+ * Holds at most a set number of entries, dropping the least recently used, and can expire entries after a set time.
+ * Emptied whenever a different script generation uses it, so results never outlive a reload.
+ */
+public class ProcedureCache {
+
+    private static class CachedResult {
+
+        public final HashMap<String, AbstractTagObject> determinations;
+
+        public final long createdNanos;
+
+        public CachedResult(HashMap<String, AbstractTagObject> determinations, long createdNanos) {
+            this.determinations = determinations;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    public final int maxSize;
+
+    /**
+     * How long entries last, or 0 to keep them until dropped for space.
+     */
+    public final long durationNanos;
+
+    private final LinkedHashMap<String, CachedResult> entries;
+
+    private long generationId = -1;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    public ProcedureCache(int maxSize, long durationNanos) {
+        this.maxSize = maxSize;
+        this.durationNanos = durationNanos;
+        entries = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                if (size() > ProcedureCache.this.maxSize) {
+                    evictions++;
+                    Metrics.procedureCacheEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private void checkGeneration(long generation) {
+        if (generation != generationId) {
+            entries.clear();
+            generationId = generation;
+        }
+    }
+
+    /**
+     * Returns a copy of the remembered determinations for the given key, or null if there are none.
+     */
+    public synchronized HashMap<String, AbstractTagObject> get(long generation, String key) {
+        checkGeneration(generation);
+        CachedResult entry = entries.get(key);
+        if (entry != null && durationNanos > 0 && System.nanoTime() - entry.createdNanos > durationNanos) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            Metrics.procedureCacheMisses.increment();
+            return null;
+        }
+        hits++;
+        Metrics.procedureCacheHits.increment();
+        return copy(entry.determinations);
+    }
+
+    /**
+     * Remembers a copy of the given determinations, so that changes to the caller's lists and maps never reach the cache.
+     */
+    public synchronized void put(long generation, String key, HashMap<String, AbstractTagObject> determinations) {
+        checkGeneration(generation);
+        entries.put(key, new CachedResult(copy(determinations), System.nanoTime()));
+    }
+
+    /**
+     * Copies a map of determinations, including every list and map within it, which are the only mutable tag objects.
+     */
+    private static HashMap<String, AbstractTagObject> copy(Map<String, AbstractTagObject> map) {
+        HashMap<String, AbstractTagObject> result = new HashMap<>(map.size() * 2);
+        for (Map.Entry<String, AbstractTagObject> entry : map.entrySet()) {
+            result.put(entry.getKey(), copy(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static AbstractTagObject copy(AbstractTagObject obj) {
+        if (obj instanceof MapTag) {
+            return new MapTag(copy(((MapTag) obj).getInternal()));
+        }
+        if (obj instanceof ListTag) {
+            List<AbstractTagObject> list = ((ListTag) obj).getInternal();
+            ListTag result = new ListTag(list.size());
+            for (AbstractTagObject item : list) {
+                result.getInternal().add(copy(item));
+            }
+            return result;
+        }
+        return obj;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the cache key for a call to the given path with the given context.
+     * Maps are written with their keys sorted, so equal input always gives an equal key.
+     */
+    public static String keyFor(String path, Map<String, AbstractTagObject> context) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(path == null ? "" : path).append('\n');
+        appendCanonical(sb, context);
+        return sb.toString();
+    }
+
+    private static void appendCanonical(StringBuilder sb, Map<String, AbstractTagObject> map) {
+        sb.append('{');
+        for (String key : new TreeSet<>(map.keySet())) {
+            sb.append(EscapeTagBase.escape(key)).append(':');
+            appendCanonical(sb, map.get(key));
+            sb.append('|');
+        }
+        sb.append('}');
+    }
+
+    private static void appendCanonical(StringBuilder sb, AbstractTagObject obj) {
+        if (obj instanceof MapTag) {
+            appendCanonical(sb, ((MapTag) obj).getInternal());
+        }
+        else if (obj instanceof ListTag) {
+            sb.append('[');
+            for (AbstractTagObject item : ((ListTag) obj).getInternal()) {
+                appendCanonical(sb, item);
+                sb.append('|');
+            }
+            sb.append(']');
+        }
+        else {
+            sb.append(EscapeTagBase.escape(obj.savable()));
+        }
+    }
+}
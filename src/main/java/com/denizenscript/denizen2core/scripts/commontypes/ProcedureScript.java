@@ -2,7 +2,11 @@ package com.denizenscript.denizen2core.scripts.commontypes;
 
 import com.denizenscript.denizen2core.commands.CommandScriptSection;
 import com.denizenscript.denizen2core.scripts.CommandScript;
+import com.denizenscript.denizen2core.tags.objects.DurationTag;
+import com.denizenscript.denizen2core.tags.objects.IntegerTag;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+import com.denizenscript.denizen2core.utilities.debugging.Debug;
 import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
 
 public class ProcedureScript extends CommandScript {
@@ -18,8 +22,84 @@ public class ProcedureScript extends CommandScript {
     // A procedural script can only calculate things, it cannot execute changes upon the world.
     // -->
 
+    // <--[explanation]
+    // @Since 0.5.5
+    // @Name Procedure Caching
+    // @Updated 2026/10/19
+    // @Group Script Options
+    // @Description
+    // A procedure script that always gives the same result for the same input (EG a lookup table or a formatting helper)
+    // can have its results remembered, so that repeated calls with equal input skip running the script.
+    // Input is compared by the path and all context values, with maps compared regardless of key order.
+    // Results are forgotten when scripts are reloaded, and errored runs are never remembered.
+    // Enable this with the "cache" option, set to the most results to remember (the least recently used are dropped first):
+    // <@code>
+    // my_procedure:
+    //   type: procedure
+    //   cache: 100
+    //   script:
+    //   - determine result <[context].[a].add[1]>
+    // <@/code>
+    // Or, to also forget results after a span of time, set it to a section with "size" and "duration" keys:
+    // <@code>
+    //   cache:
+    //     size: 100
+    //     duration: 5s
+    // <@/code>
+    // Individual calls can skip the cache, see the <@link tag procedure>procedure<@/link> tag.
+    // Hits, misses, and evictions are counted in the "procedure_cache" metrics of <@link tag SystemTag.metrics>SystemTag.metrics<@/link>.
+    // -->
+
+    public final static int DEFAULT_CACHE_SIZE = 100;
+
+    /**
+     * The result cache, if the script has the "cache" option, otherwise null.
+     */
+    public final ProcedureCache cache;
+
     public ProcedureScript(String name, YAMLConfiguration section) {
         super(name, section);
+        cache = readCacheOption();
+    }
+
+    private ProcedureCache readCacheOption() {
+        if (!contents.contains("cache")) {
+            return null;
+        }
+        String sizeText;
+        String durationText;
+        YAMLConfiguration cacheSection = contents.getConfigurationSection("cache");
+        if (cacheSection != null) {
+            sizeText = cacheSection.getString("size", String.valueOf(DEFAULT_CACHE_SIZE));
+            durationText = cacheSection.getString("duration", null);
+        }
+        else {
+            sizeText = contents.getString("cache");
+            durationText = null;
+        }
+        if (CoreUtilities.toLowerCase(sizeText).equals("false")) {
+            return null;
+        }
+        if (CoreUtilities.toLowerCase(sizeText).equals("true")) {
+            sizeText = String.valueOf(DEFAULT_CACHE_SIZE);
+        }
+        IntegerTag size = IntegerTag.getFor((s) -> { }, sizeText);
+        if (size == null || size.getInternal() < 1 || size.getInternal() > Integer.MAX_VALUE) {
+            Debug.error("Invalid cache size '" + ColorSet.emphasis + sizeText + ColorSet.warning + "' for procedure script '"
+                    + ColorSet.emphasis + title + ColorSet.warning + "', must be a positive number. Not caching.");
+            return null;
+        }
+        long durationNanos = 0;
+        if (durationText != null) {
+            DurationTag duration = DurationTag.getFor((s) -> { }, durationText);
+            if (duration == null || duration.getInternal() <= 0) {
+                Debug.error("Invalid cache duration '" + ColorSet.emphasis + durationText + ColorSet.warning + "' for procedure script '"
+                        + ColorSet.emphasis + title + ColorSet.warning + "'. Not caching.");
+                return null;
+            }
+            durationNanos = (long) (duration.getInternal() * 1000000000.0);
+        }
+        return new ProcedureCache((int) size.getInternal(), durationNanos);
     }
 
     @Override
@@ -27,6 +107,11 @@ public class ProcedureScript extends CommandScript {
         return !section.startsWith("constant");
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     public CommandScriptSection getSection(String name) {
         if (name == null || name.length() == 0) {
             return sections.get("script");
@@ -26,6 +26,11 @@ public class TaskScript extends CommandScript {
         return !section.startsWith("constant");
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     public CommandScriptSection getSection(String name) {
         if (name == null || name.length() == 0) {
             return sections.get("script");
@@ -1,6 +1,5 @@
 package com.denizenscript.denizen2core.scripts.commontypes;
 
-import com.denizenscript.denizen2core.events.ScriptEvent;
 import com.denizenscript.denizen2core.commands.CommandScriptSection;
 import com.denizenscript.denizen2core.scripts.CommandScript;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
@@ -29,6 +28,11 @@ public class WorldScript extends CommandScript {
         return !section.startsWith("constant");
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     public CommandScriptSection getSection(String name) {
         if (name == null || name.length() == 0) {
             return null;
@@ -36,14 +40,5 @@ public class WorldScript extends CommandScript {
         return sections.get(CoreUtilities.toLowerCase(name));
     }
 
-    @Override
-    public boolean init() {
-        if (super.init()) {
-            ScriptEvent.currentWorldScripts.add(this);
-            return true;
-        }
-        return false;
-    }
-
     public final HashSet<String> eventsConfirmed = new HashSet<>();
 }
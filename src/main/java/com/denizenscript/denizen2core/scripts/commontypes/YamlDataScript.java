@@ -24,6 +24,11 @@ public class YamlDataScript extends CommandScript {
         return false;
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     public CommandScriptSection getSection(String name) {
         return null;
     }
@@ -10,4 +10,13 @@ public abstract class AbstractTagBase {
     }
 
     public abstract AbstractTagObject handle(TagData data);
+
+    /**
+     * Returns whether this tag base only computes a value from its input and definitions, with no side effects
+     * and no use of engine state, so that tags starting with it may be evaluated on any thread, at the same time.
+     * Tags of objects past the base are checked as they are handled instead, see AbstractTagObject.isThreadSafe.
+     */
+    public boolean isPure() {
+        return false;
+    }
 }
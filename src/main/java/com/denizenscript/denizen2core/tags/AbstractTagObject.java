@@ -2,6 +2,7 @@ package com.denizenscript.denizen2core.tags;
 
 import com.denizenscript.denizen2core.tags.objects.NullTag;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.debugging.Profiler;
 
 import java.util.HashMap;
 
@@ -17,10 +18,26 @@ public abstract class AbstractTagObject {
             return this;
         }
         String type = data.getNext();
+        if (!isThreadSafe() && TagData.isThreadSafeOnly()) {
+            throw new TagData.NotThreadSafeException("Cannot handle tag part '" + type + "' of a " + getTagTypeName()
+                    + " while evaluating tags in parallel, as it is not thread safe.");
+        }
         Function2<TagData, AbstractTagObject, AbstractTagObject> tagAction = getHandlers().get(type);
         if (tagAction != null) {
             try {
-                AbstractTagObject curVal = tagAction.apply(data, this);
+                AbstractTagObject curVal;
+                if (Profiler.isActive()) {
+                    long profileStart = Profiler.enter(getTagTypeName() + "." + type);
+                    try {
+                        curVal = tagAction.apply(data, this);
+                    }
+                    finally {
+                        Profiler.exit(profileStart, 1);
+                    }
+                }
+                else {
+                    curVal = tagAction.apply(data, this);
+                }
                 return curVal.handle(data.shrink());
             }
             catch (TagData.TagDataEscalateException e) {
@@ -34,6 +51,15 @@ public abstract class AbstractTagObject {
         return NullTag.NULL;
     }
 
+    /**
+     * Returns whether every tag of this object only computes a value from the object and its inputs,
+     * with no side effects and no use of engine state, so that it may be handled on any thread, at the same time.
+     * Only such objects are handled while tags are evaluated in parallel, see ListTag.parallelThreshold.
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     public abstract AbstractTagObject handleElseCase(TagData data);
 
     public abstract String getTagTypeName();
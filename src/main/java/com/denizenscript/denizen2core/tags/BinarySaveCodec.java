@@ -0,0 +1,231 @@
+package com.denizenscript.denizen2core.tags;
+
+import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.tags.objects.NullTag;
+import com.denizenscript.denizen2core.utilities.Action;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * A compact binary form of savable objects.
+ * Each object is written as a type ID followed by its data, with all strings and collections length-prefixed,
+ * so nested lists and maps need no escaping and save and load in linear time.
+ * Types with no registered binary form are written as their text savable.
+ */
+public class BinarySaveCodec {
+
+    public static class InvalidDataException extends RuntimeException {
+
+        public InvalidDataException(String message) {
+            super(message);
+        }
+    }
+
+    public interface Writer {
+        void write(AbstractTagObject obj, DataOutput out) throws IOException;
+    }
+
+    public interface Reader {
+        AbstractTagObject read(Action<String> error, ByteBuffer in);
+    }
+
+    public static class BinaryType {
+
+        public final int id;
+
+        public final String typeName;
+
+        public final Writer writer;
+
+        public final Reader reader;
+
+        public BinaryType(int id, String typeName, Writer writer, Reader reader) {
+            this.id = id;
+            this.typeName = typeName;
+            this.writer = writer;
+            this.reader = reader;
+        }
+    }
+
+    /**
+     * The type ID used for objects written in their text savable form.
+     */
+    public static final int TEXT_SAVABLE_ID = 0;
+
+    /**
+     * The save type name of the text-safe (base64) form, as accepted by Denizen2Core.loadFromSaved.
+     */
+    public static final String SAVE_TYPE = "Binary";
+
+    public static final SnapshotMap<Integer, BinaryType> typesById = new SnapshotMap<>();
+
+    public static final SnapshotMap<String, BinaryType> typesByName = new SnapshotMap<>();
+
+    /**
+     * Registers a binary form for a tag type. IDs must stay the same between versions, as they are stored in saved data.
+     */
+    public static void register(int id, String typeName, Writer writer, Reader reader) {
+        if (id == TEXT_SAVABLE_ID) {
+            throw new IllegalArgumentException("Binary save type ID " + TEXT_SAVABLE_ID + " is reserved.");
+        }
+        BinaryType type = new BinaryType(id, typeName, writer, reader);
+        typesById.put(id, type);
+        typesByName.put(typeName, type);
+    }
+
+    public static void write(AbstractTagObject obj, DataOutput out) throws IOException {
+        BinaryType type = typesByName.get(obj.getTagTypeName());
+        if (type == null) {
+            writeVarInt(out, TEXT_SAVABLE_ID);
+            writeString(out, obj.savable());
+            return;
+        }
+        writeVarInt(out, type.id);
+        type.writer.write(obj, out);
+    }
+
+    /**
+     * Reads one object, leaving the buffer positioned just after it.
+     * Throws an InvalidDataException if the data is not valid.
+     */
+    public static AbstractTagObject read(Action<String> error, ByteBuffer in) {
+        int id = readVarInt(in);
+        if (id == TEXT_SAVABLE_ID) {
+            return Denizen2Core.loadFromSaved(error, readString(in));
+        }
+        BinaryType type = typesById.get(id);
+        if (type == null) {
+            throw new InvalidDataException("No binary save loader for type ID " + id + "!");
+        }
+        return type.reader.read(error, in);
+    }
+
+    public static byte[] toBytes(AbstractTagObject obj) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            write(obj, new DataOutputStream(bytes));
+        }
+        catch (IOException ex) {
+            // A ByteArrayOutputStream does not throw.
+            throw new RuntimeException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static AbstractTagObject fromBytes(Action<String> error, byte[] data) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            AbstractTagObject result = read(error, buffer);
+            if (buffer.hasRemaining()) {
+                error.run("Binary saved data has " + buffer.remaining() + " unexpected trailing bytes!");
+            }
+            return result;
+        }
+        catch (InvalidDataException ex) {
+            error.run(ex.getMessage());
+        }
+        catch (BufferUnderflowException | IllegalArgumentException ex) {
+            error.run("Binary saved data is truncated or invalid!");
+        }
+        return NullTag.NULL;
+    }
+
+    /**
+     * Returns the text-safe form of an object: its binary form in base64, marked so loadFromSaved can read it.
+     */
+    public static String toBase64(AbstractTagObject obj) {
+        return SAVE_TYPE + AbstractTagObject.saveMark() + Base64.getEncoder().encodeToString(toBytes(obj));
+    }
+
+    /**
+     * Reads the base64 part of the text-safe form (everything after the save mark).
+     */
+    public static AbstractTagObject fromBase64(Action<String> error, String text) {
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(text);
+        }
+        catch (IllegalArgumentException ex) {
+            error.run("Invalid base64 in binary saved data: " + ColorSet.emphasis + ex.getMessage() + ColorSet.warning + "!");
+            return NullTag.NULL;
+        }
+        return fromBytes(error, data);
+    }
+
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidDataException("Invalid variable-length integer in binary saved data!");
+    }
+
+    /**
+     * Writes a signed long in zig-zag variable-length form, so small values of either sign stay small.
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        value = (value << 1) ^ (value >> 63);
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+        throw new InvalidDataException("Invalid variable-length integer in binary saved data!");
+    }
+
+    public static void writeString(DataOutput out, String str) throws IOException {
+        byte[] data = str.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, data.length);
+        out.write(data);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = readSize(in);
+        byte[] data = new byte[length];
+        in.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a length or count, checking it cannot run past the end of the data.
+     */
+    public static int readSize(ByteBuffer in) {
+        int size = readVarInt(in);
+        if (size < 0 || size > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return size;
+    }
+}
@@ -16,6 +16,41 @@ public class TagData {
     public class TagDataEscalateException extends RuntimeException {
     }
 
+    /**
+     * Thrown while tags are evaluated in parallel, when a tag base that is not pure is about to be used,
+     * or a tag part is about to be handled by an object that is not thread safe.
+     * Nothing of that tag base or object has run yet. See AbstractTagBase.isPure and AbstractTagObject.isThreadSafe.
+     */
+    public static class NotThreadSafeException extends RuntimeException {
+
+        public NotThreadSafeException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final ThreadLocal<Boolean> threadSafeOnly = new ThreadLocal<>();
+
+    /**
+     * Returns whether the calling thread is evaluating tags in parallel, where only thread safe objects may be handled.
+     */
+    public static boolean isThreadSafeOnly() {
+        return threadSafeOnly.get() != null;
+    }
+
+    /**
+     * Sets whether the calling thread is evaluating tags in parallel, returning the previous value, to restore afterward.
+     */
+    public static boolean setThreadSafeOnly(boolean only) {
+        boolean previous = isThreadSafeOnly();
+        if (only) {
+            threadSafeOnly.set(Boolean.TRUE);
+        }
+        else {
+            threadSafeOnly.remove();
+        }
+        return previous;
+    }
+
     private int cInd = 0;
 
     public TagData(Action<String> err, TagBit[] b, Argument fb, HashMap<String, AbstractTagObject> vars, DebugMode dbm,
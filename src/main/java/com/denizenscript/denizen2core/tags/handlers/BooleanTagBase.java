@@ -20,6 +20,11 @@ public class BooleanTagBase extends AbstractTagBase {
         return "boolean";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return BooleanTag.getFor(data.error, data.getNextModifier()).handle(data.shrink());
@@ -20,6 +20,11 @@ public class DefExistsTagBase extends AbstractTagBase {
         return "def_exists";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         String def = data.getNextModifier().toString();
@@ -20,6 +20,11 @@ public class DefTagBase extends AbstractTagBase {
         return "def";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         String def = data.getNextModifier().toString();
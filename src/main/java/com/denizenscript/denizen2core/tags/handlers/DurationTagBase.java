@@ -20,6 +20,11 @@ public class DurationTagBase extends AbstractTagBase {
         return "duration";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return DurationTag.getFor(data.error, data.getNextModifier()).handle(data.shrink());
@@ -95,6 +95,11 @@ public class EscapeTagBase extends AbstractTagBase {
         return "escape";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return new TextTag(escape(data.getNextModifier().toString())).handle(data.shrink());
@@ -20,6 +20,11 @@ public class IntegerTagBase extends AbstractTagBase {
         return "integer";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return IntegerTag.getFor(data.error, data.getNextModifier()).handle(data.shrink());
@@ -20,6 +20,11 @@ public class ListTagBase extends AbstractTagBase {
         return "list";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return ListTag.getFor(data.error, data.getNextModifier()).handle(data.shrink());
@@ -20,6 +20,11 @@ public class MapTagBase extends AbstractTagBase {
         return "map";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return MapTag.getFor(data.error, data.getNextModifier()).handle(data.shrink());
@@ -25,6 +25,11 @@ public class MathTagBase extends AbstractTagBase {
         return "math";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     // TODO: Preparse this as much as possible!
 
     @Override
@@ -20,6 +20,11 @@ public class NullTagBase extends AbstractTagBase {
         return "null";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return NullTag.NULL.handle(data.shrink());
@@ -20,6 +20,11 @@ public class NumberTagBase extends AbstractTagBase {
         return "number";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return NumberTag.getFor(data.error, data.getNextModifier()).handle(data.shrink());
@@ -2,13 +2,17 @@ package com.denizenscript.denizen2core.tags.handlers;
 
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
+import com.denizenscript.denizen2core.tags.objects.BooleanTag;
 import com.denizenscript.denizen2core.tags.objects.MapTag;
 import com.denizenscript.denizen2core.tags.objects.NullTag;
-import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.commands.CommandScriptSection;
 import com.denizenscript.denizen2core.scripts.CommandScript;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
+import com.denizenscript.denizen2core.scripts.commontypes.ProcedureCache;
 import com.denizenscript.denizen2core.scripts.commontypes.ProcedureScript;
 import com.denizenscript.denizen2core.tags.AbstractTagBase;
+import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 
 import java.util.HashMap;
@@ -20,7 +24,10 @@ public class ProcedureTagBase extends AbstractTagBase {
     // @Base procedure[<MapTag>]
     // @Group Scripts
     // @ReturnType MapTag
-    // @Returns the result of a procedure script. Input a map with key "script" set the correct script, and "path" as an optional sub-path. Other keys will be sent as context.
+    // @Updated 2026/10/19
+    // @Returns the result of a procedure script. Input a map with key "script" set the correct script, and "path" as an optional sub-path.
+    // If the script has <@link explanation Procedure Caching>caching<@/link> enabled, set key "cache" to "false" to run it without the cache.
+    // Other keys will be sent as context.
     // -->
 
     @Override
@@ -36,24 +43,54 @@ public class ProcedureTagBase extends AbstractTagBase {
             return NullTag.NULL;
         }
         String sname = CoreUtilities.toLowerCase(mt.getInternal().get("script").toString());
-        CommandScript script = Denizen2Core.currentScripts.get(sname);
+        ScriptGeneration generation = data.currentQueue != null ? data.currentQueue.generation : ScriptGeneration.current();
+        CommandScript script = generation.scripts.get(sname);
         if (script == null || !(script instanceof ProcedureScript)) {
             data.error.run("Invalid procedure script name!");
             return NullTag.NULL;
         }
         ProcedureScript pscript = (ProcedureScript) script;
-        CommandQueue queue = pscript.getSection(mt.getInternal().containsKey("path") ?
-                CoreUtilities.toLowerCase(mt.getInternal().get("path").toString()) : null).toQueue();
-        queue.procedural = true;
-        HashMap<String, AbstractTagObject> context = new HashMap<>(mt.getInternal());
-        context.remove("script");
-        context.remove("path");
-        queue.commandStack.peek().setDefinition("context", new MapTag(context));
-        queue.specialErrorHandler = (s) -> {
+        String path = mt.getInternal().containsKey("path") ? CoreUtilities.toLowerCase(mt.getInternal().get("path").toString()) : null;
+        CommandScriptSection section = pscript.getSection(path);
+        if (section == null) {
+            data.error.run("Invalid procedure script path!");
+            return NullTag.NULL;
+        }
+        MapTag context = new MapTag();
+        context.getInternal().putAll(mt.getInternal());
+        context.getInternal().remove("script");
+        context.getInternal().remove("path");
+        AbstractTagObject useCache = context.getInternal().remove("cache");
+        String cacheKey = null;
+        if (pscript.cache != null && (useCache == null || BooleanTag.getFor(data.error, useCache).getInternal())) {
+            cacheKey = ProcedureCache.keyFor(path, context.getInternal());
+            HashMap<String, AbstractTagObject> cached = pscript.cache.get(generation.id, cacheKey);
+            if (cached != null) {
+                return new MapTag(cached).handle(data.shrink());
+            }
+        }
+        boolean[] errored = new boolean[] { false };
+        Action<String> errorHandler = (s) -> {
+            errored[0] = true;
             data.error.run("Procedure script gave error: " + s);
         };
-        queue.start();
-        queue.specialErrorHandler = null;
-        return new MapTag(queue.determinations.getInternal()).handle(data.shrink());
+        MapTag result;
+        if (section.canRunAsFrame()) {
+            result = section.runProcedure(generation, context, data.currentQueue != null ? data.currentQueue.qID : 0, errorHandler);
+        }
+        else {
+            CommandQueue queue = section.toQueue();
+            queue.generation = generation;
+            queue.procedural = true;
+            queue.commandStack.peek().setDefinition("context", context);
+            queue.specialErrorHandler = errorHandler;
+            queue.start();
+            queue.specialErrorHandler = null;
+            result = queue.determinations;
+        }
+        if (cacheKey != null && !errored[0]) {
+            pscript.cache.put(generation.id, cacheKey, result.getInternal());
+        }
+        return result.handle(data.shrink());
     }
 }
@@ -0,0 +1,31 @@
+package com.denizenscript.denizen2core.tags.handlers;
+
+import com.denizenscript.denizen2core.tags.AbstractTagBase;
+import com.denizenscript.denizen2core.tags.AbstractTagObject;
+import com.denizenscript.denizen2core.tags.BinarySaveCodec;
+import com.denizenscript.denizen2core.tags.TagData;
+import com.denizenscript.denizen2core.tags.objects.TextTag;
+
+public class SaveBinaryTagBase extends AbstractTagBase {
+
+    // <--[tagbase]
+    // @Since 0.5.5
+    // @Base save_binary[<Dynamic>]
+    // @Updated 2026/10/19
+    // @Group Definitions
+    // @ReturnType TextTag
+    // @Returns a compact "savable" variant of an object identity, as base64 text.
+    // @Note Reads back with the from_saved tag base, same as the normal savable form.
+    // Nested lists and maps save and load much faster and smaller than with the save tag base.
+    // -->
+
+    @Override
+    public String getName() {
+        return "save_binary";
+    }
+
+    @Override
+    public AbstractTagObject handle(TagData data) {
+        return new TextTag(BinarySaveCodec.toBase64(data.getNextModifier()));
+    }
+}
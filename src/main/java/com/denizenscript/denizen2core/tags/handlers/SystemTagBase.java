@@ -2,12 +2,19 @@ package com.denizenscript.denizen2core.tags.handlers;
 
 import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.scripts.ScriptStats;
 import com.denizenscript.denizen2core.tags.AbstractTagBase;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.tags.objects.*;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
+import com.denizenscript.denizen2core.utilities.RegexCache;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+import com.denizenscript.denizen2core.utilities.metrics.Counter;
+import com.denizenscript.denizen2core.utilities.metrics.Histogram;
+import com.denizenscript.denizen2core.utilities.metrics.Metrics;
 import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
 
 import java.io.File;
@@ -15,6 +22,7 @@ import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 public class SystemTagBase extends AbstractTagBase {
 
@@ -34,7 +42,7 @@ public class SystemTagBase extends AbstractTagBase {
     public SystemTagBase() {
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -114,7 +122,7 @@ public class SystemTagBase extends AbstractTagBase {
         // -->
         handlers.put("queues", (dat, obj) -> {
             ListTag lt = new ListTag();
-            for (CommandQueue queue : Denizen2Core.queues) {
+            for (CommandQueue queue : Denizen2Core.getQueues()) {
                 lt.getInternal().add(new QueueTag(queue));
             }
             return lt;
@@ -129,7 +137,7 @@ public class SystemTagBase extends AbstractTagBase {
         // -->
         handlers.put("yaml_files", (dat, obj) -> {
             ListTag lt = new ListTag();
-            for (Map.Entry<String, Object> entry : Denizen2Core.filesLoadedByScripts.entrySet()) {
+            for (Map.Entry<String, Object> entry : Denizen2Core.getFilesLoadedByScripts().entrySet()) {
                 if (entry.getValue() instanceof YAMLConfiguration) {
                     lt.getInternal().add(new TextTag(entry.getKey()));
                 }
@@ -146,7 +154,7 @@ public class SystemTagBase extends AbstractTagBase {
         // -->
         handlers.put("has_yaml", (dat, obj) -> {
             String name = dat.getNextModifier().toString();
-            return BooleanTag.getForBoolean(Denizen2Core.filesLoadedByScripts.containsKey(CoreUtilities.toLowerCase(name)));
+            return BooleanTag.getForBoolean(Denizen2Core.getFilesLoadedByScripts().containsKey(CoreUtilities.toLowerCase(name)));
         });
         // <--[tag]
         // @Since 0.3.0
@@ -242,6 +250,106 @@ public class SystemTagBase extends AbstractTagBase {
         // @Returns a randomly selected true or false value.
         // -->
         handlers.put("random_boolean", (dat, obj) -> BooleanTag.getForBoolean((CoreUtilities.random.nextBoolean())));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name SystemTag.regex_cache_hits
+        // @Updated 2026/10/19
+        // @Group Denizen2
+        // @ReturnType IntegerTag
+        // @Returns the number of times a compiled regular expression was reused from the regex cache.
+        // -->
+        handlers.put("regex_cache_hits", (dat, obj) -> new IntegerTag(RegexCache.getHits()));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name SystemTag.regex_cache_misses
+        // @Updated 2026/10/19
+        // @Group Denizen2
+        // @ReturnType IntegerTag
+        // @Returns the number of times a regular expression had to be compiled because it was not in the regex cache.
+        // -->
+        handlers.put("regex_cache_misses", (dat, obj) -> new IntegerTag(RegexCache.getMisses()));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name SystemTag.top_scripts[<DurationTag>]
+        // @Updated 2026/10/19
+        // @Group Denizen2
+        // @ReturnType ListTag
+        // @Returns a list of all scripts that ran within the given recent span of time (up to 5 minutes),
+        // sorted by the time they used in that span, most first.
+        // See <@link tag ScriptTag.recent_stats[<DurationTag>]>ScriptTag.recent_stats<@/link>.
+        // -->
+        handlers.put("top_scripts", (dat, obj) -> {
+            DurationTag duration = DurationTag.getFor(dat.error, dat.getNextModifier());
+            ListTag lt = new ListTag();
+            for (ScriptStats.Entry entry : ScriptStats.topScripts((int) Math.ceil(duration.getInternal()))) {
+                lt.getInternal().add(new ScriptTag(entry.script));
+            }
+            return lt;
+        });
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name SystemTag.metrics
+        // @Updated 2026/10/19
+        // @Group Denizen2
+        // @ReturnType MapTag
+        // @Returns a map of every engine metric name to its value. See <@link tag SystemTag.metric[<TextTag>]>SystemTag.metric<@/link>.
+        // -->
+        handlers.put("metrics", (dat, obj) -> {
+            MapTag map = new MapTag();
+            for (Map.Entry<String, Counter> entry : Metrics.getCounters().entrySet()) {
+                map.getInternal().put(entry.getKey(), new IntegerTag(entry.getValue().get()));
+            }
+            for (Map.Entry<String, LongSupplier> entry : Metrics.getGauges().entrySet()) {
+                map.getInternal().put(entry.getKey(), new IntegerTag(entry.getValue().getAsLong()));
+            }
+            for (Map.Entry<String, Histogram> entry : Metrics.getHistograms().entrySet()) {
+                map.getInternal().put(entry.getKey(), histogramMap(entry.getValue().snapshot()));
+            }
+            return map;
+        });
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name SystemTag.metric[<TextTag>]
+        // @Updated 2026/10/19
+        // @Group Denizen2
+        // @ReturnType Dynamic
+        // @Returns the value of the named engine metric.
+        // Counters (like "queues.started" or "tags.evaluated") and gauges (like "queues.live") are IntegerTags.
+        // Histograms (like "tick.time_ns" or "events.deltatime.run_ns") are MapTags of
+        // "count", "sum", "mean", "max", "p50", "p90", and "p99". Names ending in "_ns" are times in nanoseconds.
+        // Each script event has "events.<name>.fired" and "events.<name>.run_ns" metrics.
+        // -->
+        handlers.put("metric", (dat, obj) -> {
+            String name = CoreUtilities.toLowerCase(dat.getNextModifier().toString());
+            Counter counter = Metrics.getCounters().get(name);
+            if (counter != null) {
+                return new IntegerTag(counter.get());
+            }
+            LongSupplier gauge = Metrics.getGauges().get(name);
+            if (gauge != null) {
+                return new IntegerTag(gauge.getAsLong());
+            }
+            Histogram histogram = Metrics.getHistograms().get(name);
+            if (histogram != null) {
+                return histogramMap(histogram.snapshot());
+            }
+            if (!dat.hasFallback()) {
+                dat.error.run("Unknown metric: " + ColorSet.emphasis + name + ColorSet.warning + "!");
+            }
+            return NullTag.NULL;
+        });
+    }
+
+    private static MapTag histogramMap(Histogram.Snapshot snapshot) {
+        MapTag map = new MapTag();
+        map.getInternal().put("count", new IntegerTag(snapshot.count));
+        map.getInternal().put("sum", new IntegerTag(snapshot.sum));
+        map.getInternal().put("mean", new NumberTag(snapshot.mean()));
+        map.getInternal().put("max", new IntegerTag(snapshot.max));
+        map.getInternal().put("p50", new IntegerTag(snapshot.percentile(50)));
+        map.getInternal().put("p90", new IntegerTag(snapshot.percentile(90)));
+        map.getInternal().put("p99", new IntegerTag(snapshot.percentile(99)));
+        return map;
     }
 
     @Override
@@ -1,8 +1,8 @@
 package com.denizenscript.denizen2core.tags.handlers;
 
-import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.commands.CommandQueue;
 import com.denizenscript.denizen2core.scripts.CommandScript;
+import com.denizenscript.denizen2core.scripts.ScriptGeneration;
 import com.denizenscript.denizen2core.scripts.commontypes.TaskScript;
 import com.denizenscript.denizen2core.tags.AbstractTagBase;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
@@ -36,7 +36,8 @@ public class TaskTagBase extends AbstractTagBase {
             return NullTag.NULL;
         }
         String sname = CoreUtilities.toLowerCase(mt.getInternal().get("script").toString());
-        CommandScript script = Denizen2Core.currentScripts.get(sname);
+        ScriptGeneration generation = data.currentQueue != null ? data.currentQueue.generation : ScriptGeneration.current();
+        CommandScript script = generation.scripts.get(sname);
         if (script == null || !(script instanceof TaskScript)) {
             data.error.run("Invalid task script name!");
             return NullTag.NULL;
@@ -49,6 +50,7 @@ public class TaskTagBase extends AbstractTagBase {
         // TODO: Implemenet always vs. on?!
         CommandQueue queue = pscript.getSection(mt.getInternal().containsKey("path") ?
                 CoreUtilities.toLowerCase(mt.getInternal().get("path").toString()) : null).toQueue();
+        queue.generation = generation;
         HashMap<String, AbstractTagObject> context = new HashMap<>(mt.getInternal());
         context.remove("script");
         context.remove("path");
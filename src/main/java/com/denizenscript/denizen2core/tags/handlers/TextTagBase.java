@@ -31,6 +31,11 @@ public class TextTagBase extends AbstractTagBase {
         return "text";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return TextTag.getFor(data.error, data.getNextModifier()).handle(data.shrink());
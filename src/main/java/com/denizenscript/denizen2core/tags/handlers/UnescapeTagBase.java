@@ -20,6 +20,11 @@ public class UnescapeTagBase extends AbstractTagBase {
         return "unescape";
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handle(TagData data) {
         return new TextTag(EscapeTagBase.unescape(data.getNextModifier().toString())).handle(data.shrink());
@@ -3,6 +3,7 @@ package com.denizenscript.denizen2core.tags.objects;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 
@@ -36,7 +37,7 @@ public class BooleanTag extends AbstractTagObject {
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -116,6 +117,11 @@ public class BooleanTag extends AbstractTagObject {
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handleElseCase(TagData data) {
         return new TextTag(toString());
@@ -4,6 +4,7 @@ import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 
@@ -50,7 +51,7 @@ public class DurationTag extends AbstractTagObject implements Denizen2Core.Numbe
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -248,6 +249,11 @@ public class DurationTag extends AbstractTagObject implements Denizen2Core.Numbe
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handleElseCase(TagData data) {
         return new TextTag(toString());
@@ -4,6 +4,7 @@ import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.utilities.Action;
 
 import java.util.HashMap;
@@ -39,7 +40,7 @@ public class IntegerTag extends AbstractTagObject implements Denizen2Core.Intege
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -288,6 +289,11 @@ public class IntegerTag extends AbstractTagObject implements Denizen2Core.Intege
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handleElseCase(TagData data) {
         return new NumberTag(internal);
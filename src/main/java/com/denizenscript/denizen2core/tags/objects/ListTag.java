@@ -1,19 +1,29 @@
 package com.denizenscript.denizen2core.tags.objects;
 
 import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.DenizenEngine;
 import com.denizenscript.denizen2core.arguments.Argument;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
+import com.denizenscript.denizen2core.tags.BinarySaveCodec;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.tags.handlers.EscapeTagBase;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.arguments.TextArgumentBit;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.ErrorInducedException;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ListTag extends AbstractTagObject {
 
@@ -43,15 +53,9 @@ public class ListTag extends AbstractTagObject {
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
-        // TODO: Tags to add:
-        // sort_numeric[<Tag>] returns ListTag of the current list, sorted numerically. Optionally specify a tag (of parse/filter style) to get a sort key.
-        // sort_alphabetical[<Tag>] returns ListTag of the current list, sorted alphabetically. Optionally specify a tag (of parse/filter style) to get a sort key.
-        // sort_alphanumeric[<Tag>] returns ListTag of the current list, sorted alphanumerically. Optionally specify a tag (of parse/filter style) to get a sort key.
-        // ...
-
         // <--[tag]
         // @Since 0.3.0
         // @Name ListTag.get[<IntegerTag>]
@@ -242,64 +246,157 @@ public class ListTag extends AbstractTagObject {
         // <--[tag]
         // @Since 0.5.0
         // @Name ListTag.parse[<Tag>]
-        // @Updated 2018/06/10
+        // @Updated 2026/10/19
         // @Group Loops
         // @ReturnType ListTag
         // @Returns a list of all entries in this list, parsed by a tag (use definition 'parse_value').
+        // Long lists are parsed in parallel when the tag is pure, see <@link explanation Parallel List Tags>Parallel List Tags<@/link>.
         // @Example "one|two|three|" .parse[<[parse_value].to_upper[o]>] returns "ONE|TWO|THREE|".
         // -->
-        handlers.put("parse", (dat, obj) -> {
-            if (!dat.hasNextModifier()) {
-                if (!dat.hasFallback()) {
-                    dat.error.run("ListTag.parse requires a modifier input!");
-                }
-                return NullTag.NULL;
-            }
-            Action<String> errorHandle = (s) -> {
-                dat.error.run("Failed to handle tag within a ListTag.parse run: " + s);
-            };
-            Argument arg = dat.bits[dat.currentIndex()].variable;
-            ListTag original = (ListTag) obj;
-            ListTag result = new ListTag(original.internal.size());
-            HashMap<String, AbstractTagObject> vars = dat.variables == null ? new HashMap<>() : new HashMap<>(dat.variables);
-            for (AbstractTagObject ato : original.internal) {
-                vars.put("parse_value", ato);
-                AbstractTagObject outp = arg.parse(dat.currentQueue, vars, dat.dbmode, errorHandle);
-                result.internal.add(outp);
-            }
-            return result;
-        });
+        handlers.put("parse", (dat, obj) -> parse(dat, (ListTag) obj, "parse", false));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ListTag.parallel_parse[<Tag>]
+        // @Updated 2026/10/19
+        // @Group Loops
+        // @ReturnType ListTag
+        // @Returns a list of all entries in this list, parsed by a tag (use definition 'parse_value'), in parallel.
+        // See <@link explanation Parallel List Tags>Parallel List Tags<@/link>.
+        // @Example "one|two|three|" .parallel_parse[<[parse_value].to_upper[o]>] returns "ONE|TWO|THREE|".
+        // -->
+        handlers.put("parallel_parse", (dat, obj) -> parse(dat, (ListTag) obj, "parallel_parse", true));
         // <--[tag]
         // @Since 0.5.0
         // @Name ListTag.filter[<BooleanTag>]
-        // @Updated 2018/06/10
+        // @Updated 2026/10/19
         // @Group Loops
         // @ReturnType ListTag
         // @Returns a list of all entries in this list that pass a boolean test (use definition 'filter_value').
+        // Long lists are filtered in parallel when the test is pure, see <@link explanation Parallel List Tags>Parallel List Tags<@/link>.
         // @Example "one|two|three|four|" .filter[<[filter_value].contains_text[o]>] returns "one|two|four|".
         // -->
-        handlers.put("filter", (dat, obj) -> {
-            if (!dat.hasNextModifier()) {
+        handlers.put("filter", (dat, obj) -> filter(dat, (ListTag) obj, "filter", false));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ListTag.parallel_filter[<BooleanTag>]
+        // @Updated 2026/10/19
+        // @Group Loops
+        // @ReturnType ListTag
+        // @Returns a list of all entries in this list that pass a boolean test (use definition 'filter_value'), tested in parallel.
+        // See <@link explanation Parallel List Tags>Parallel List Tags<@/link>.
+        // @Example "one|two|three|four|" .parallel_filter[<[filter_value].contains_text[o]>] returns "one|two|four|".
+        // -->
+        handlers.put("parallel_filter", (dat, obj) -> filter(dat, (ListTag) obj, "parallel_filter", true));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ListTag.sort_numeric[<Tag>]
+        // @Updated 2026/10/19
+        // @Group Lists
+        // @ReturnType ListTag
+        // @Returns the list, sorted numerically from lowest to highest.
+        // Optionally specify a tag to get each entry's sort key from (use definition 'sort_value').
+        // The sort key tag is evaluated once per entry. Entries with equal keys stay in their original order.
+        // @Example "10|2|33|" .sort_numeric returns "2|10|33|".
+        // @Example "a/3|b/1|" .sort_numeric[<[sort_value].after[/]>] returns "b/1|a/3|".
+        // -->
+        handlers.put("sort_numeric", (dat, obj) -> {
+            List<AbstractTagObject> list = ((ListTag) obj).internal;
+            AbstractTagObject[] keys = sortKeys(dat, list, "sort_numeric");
+            double[] numbers = new double[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                numbers[i] = NumberTag.getFor(dat.checkedError, keys[i]).getInternal();
+            }
+            return sortedBy(list, (a, b) -> Double.compare(numbers[a], numbers[b]));
+        });
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ListTag.sort_alphabetical[<Tag>]
+        // @Updated 2026/10/19
+        // @Group Lists
+        // @ReturnType ListTag
+        // @Returns the list, sorted alphabetically, ignoring case.
+        // Optionally specify a tag to get each entry's sort key from (use definition 'sort_value').
+        // The sort key tag is evaluated once per entry. Entries with equal keys stay in their original order.
+        // @Example "b|C|a|" .sort_alphabetical returns "a|b|C|".
+        // @Example "one|two|three|" .sort_alphabetical[<[sort_value].length>] returns "one|two|three|".
+        // -->
+        handlers.put("sort_alphabetical", (dat, obj) -> {
+            List<AbstractTagObject> list = ((ListTag) obj).internal;
+            AbstractTagObject[] keys = sortKeys(dat, list, "sort_alphabetical");
+            Collator collator = Collator.getInstance(Locale.ENGLISH);
+            collator.setStrength(Collator.SECONDARY);
+            CollationKey[] collationKeys = new CollationKey[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                collationKeys[i] = collator.getCollationKey(keys[i].toString());
+            }
+            return sortedBy(list, (a, b) -> collationKeys[a].compareTo(collationKeys[b]));
+        });
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ListTag.sort_alphanumeric[<Tag>]
+        // @Updated 2026/10/19
+        // @Group Lists
+        // @ReturnType ListTag
+        // @Returns the list, sorted alphabetically ignoring case, except that runs of digits are compared as numbers.
+        // Optionally specify a tag to get each entry's sort key from (use definition 'sort_value').
+        // The sort key tag is evaluated once per entry. Entries with equal keys stay in their original order.
+        // @Example "item10|item2|Item1|" .sort_alphanumeric returns "Item1|item2|item10|".
+        // -->
+        handlers.put("sort_alphanumeric", (dat, obj) -> {
+            List<AbstractTagObject> list = ((ListTag) obj).internal;
+            AbstractTagObject[] keys = sortKeys(dat, list, "sort_alphanumeric");
+            String[][] chunks = new String[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                chunks[i] = alphanumericChunks(CoreUtilities.toLowerCase(keys[i].toString()));
+            }
+            return sortedBy(list, (a, b) -> compareAlphanumeric(chunks[a], chunks[b]));
+        });
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ListTag.top_n[<IntegerTag>]
+        // @Updated 2026/10/19
+        // @Group Lists
+        // @ReturnType ListTag
+        // @Returns the specified number of highest numbers in the list, from highest to lowest.
+        // Of equal numbers, those earlier in the list come first.
+        // This is faster than sorting the whole list when only a few entries are needed.
+        // @Example "5|1|9|3|" .top_n[2] returns "9|5|".
+        // -->
+        handlers.put("top_n", (dat, obj) -> {
+            int count = (int) IntegerTag.getFor(dat.checkedError, dat.getNextModifier()).getInternal();
+            List<AbstractTagObject> list = ((ListTag) obj).internal;
+            if (count < 0) {
                 if (!dat.hasFallback()) {
-                    dat.error.run("ListTag.filter requires a modifier input!");
+                    dat.error.run("ListTag.top_n[] failed, cannot take a negative number of entries!");
                 }
                 return NullTag.NULL;
             }
-            Action<String> errorHandle = (s) -> {
-                dat.error.run("Failed to handle tag within a ListTag.filter run: " + s);
+            double[] numbers = new double[list.size()];
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = NumberTag.getFor(dat.checkedError, list.get(i)).getInternal();
+            }
+            // Highest first, then earliest first.
+            Comparator<Integer> order = (a, b) -> {
+                int comp = Double.compare(numbers[b], numbers[a]);
+                return comp != 0 ? comp : Integer.compare(a, b);
             };
-            Argument arg = dat.bits[dat.currentIndex()].variable;
-            ListTag original = (ListTag) obj;
-            ListTag result = new ListTag(original.internal.size());
-            HashMap<String, AbstractTagObject> vars = dat.variables == null ? new HashMap<>() : new HashMap<>(dat.variables);
-            for (AbstractTagObject ato : original.internal) {
-                vars.put("filter_value", ato);
-                AbstractTagObject outp = arg.parse(dat.currentQueue, vars, dat.dbmode, errorHandle);
-                BooleanTag bt = BooleanTag.getFor(errorHandle, outp);
-                if (bt.getInternal()) {
-                    result.internal.add(ato);
+            if (count >= numbers.length) {
+                return sortedBy(list, order);
+            }
+            // The head of the heap is the worst of the best entries found so far.
+            PriorityQueue<Integer> heap = new PriorityQueue<>(count + 1, order.reversed());
+            for (int i = 0; i < numbers.length; i++) {
+                heap.add(i);
+                if (heap.size() > count) {
+                    heap.poll();
                 }
             }
+            Integer[] best = heap.toArray(new Integer[heap.size()]);
+            Arrays.sort(best, order);
+            ListTag result = new ListTag(best.length);
+            for (int index : best) {
+                result.internal.add(list.get(index));
+            }
             return result;
         });
         // <--[tag]
@@ -372,6 +469,326 @@ public class ListTag extends AbstractTagObject {
         });
     }
 
+    // <--[explanation]
+    // @Since 0.5.5
+    // @Name Parallel List Tags
+    // @Group Lists
+    // @Description
+    // The ListTag.parse and ListTag.filter tags evaluate their input tag once for each entry in the list.
+    // For long lists (by default, 4096 entries or more), when the input tag is pure, the entries are split
+    // between several threads and evaluated at the same time, with the results kept in the original order.
+    // A tag is pure when every tag base in it (including within its modifiers and fallbacks) only computes a value
+    // from its input and definitions, such as the def, text, number, list, map, and math tag bases,
+    // whereas tags like the procedure, queue, or yaml tag bases are not pure.
+    // Past the tag base, only thread safe objects are handled in parallel: text, number, integer, boolean, list, map,
+    // null, duration, and time objects are, whereas queue, script, and yaml objects are not, nor are objects added
+    // by implementations unless they say so. When a parallel evaluation reaches any other object, it stops before that object
+    // handles anything, and the whole list is evaluated on the calling thread instead.
+    // The ListTag.parallel_parse and ListTag.parallel_filter tags evaluate in parallel whatever the list length,
+    // but still only for a pure input tag: given any other, they error.
+    // The sort key tags of ListTag.sort_numeric, ListTag.sort_alphabetical, and ListTag.sort_alphanumeric follow the same rules,
+    // and long lists are then sorted in parallel as well.
+    // Nothing is evaluated in parallel when full debug output is shown, to keep the output in order.
+    // Errors are reported in list order either way.
+    // -->
+
+    /**
+     * Lists with at least this many entries are parsed, filtered, or given sort keys in parallel when the tag doing so is pure,
+     * and are sorted in parallel.
+     */
+    public static int parallelThreshold = 4096;
+
+    /**
+     * How many entries each parallel task evaluates, with its own copy of the definitions, at most.
+     */
+    private final static int PARALLEL_CHUNK_SIZE = 512;
+
+    private static boolean useParallel(TagData dat, Argument arg, int size, boolean forced) {
+        if (dat.dbmode.showFull || size < 2 || TagData.isThreadSafeOnly()) {
+            return false;
+        }
+        return (forced || size >= parallelThreshold) && arg.isPure();
+    }
+
+    /**
+     * Errors for a forced parallel tag whose input tag is not pure. Returns whether it did.
+     */
+    private static boolean rejectImpure(TagData dat, Argument arg, String tagName, boolean forced) {
+        if (!forced || arg.isPure()) {
+            return false;
+        }
+        if (!dat.hasFallback()) {
+            dat.error.run("ListTag." + tagName + " requires a pure tag, but got: " + ColorSet.emphasis + arg + ColorSet.warning + "!");
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates a tag for ranges of a list's entries, splitting the range into chunks for the common fork-join pool.
+     * Each chunk has its own copy of the definitions. Errors are kept for the calling thread to report, rather than reported here.
+     * Only thread safe objects are handled: if any other is reached, the whole evaluation stops, with notThreadSafe set.
+     */
+    private static class ParallelEvaluation extends RecursiveAction {
+
+        public final TagData dat;
+
+        public final Argument arg;
+
+        public final String valueName;
+
+        public final List<AbstractTagObject> input;
+
+        public final AbstractTagObject[] results;
+
+        public final String[] errors;
+
+        public final DenizenEngine engine;
+
+        public final AtomicBoolean notThreadSafe;
+
+        public final int start;
+
+        public final int end;
+
+        public ParallelEvaluation(TagData dat, Argument arg, String valueName, List<AbstractTagObject> input,
+                                  AbstractTagObject[] results, String[] errors, DenizenEngine engine, AtomicBoolean notThreadSafe,
+                                  int start, int end) {
+            this.dat = dat;
+            this.arg = arg;
+            this.valueName = valueName;
+            this.input = input;
+            this.results = results;
+            this.errors = errors;
+            this.engine = engine;
+            this.notThreadSafe = notThreadSafe;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > PARALLEL_CHUNK_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ParallelEvaluation(dat, arg, valueName, input, results, errors, engine, notThreadSafe, start, middle),
+                        new ParallelEvaluation(dat, arg, valueName, input, results, errors, engine, notThreadSafe, middle, end));
+                return;
+            }
+            engine.runWithin(() -> {
+                boolean previous = TagData.setThreadSafeOnly(true);
+                try {
+                    HashMap<String, AbstractTagObject> vars = dat.variables == null ? new HashMap<>() : new HashMap<>(dat.variables);
+                    for (int i = start; i < end && !notThreadSafe.get(); i++) {
+                        int index = i;
+                        vars.put(valueName, input.get(i));
+                        try {
+                            results[i] = arg.parse(dat.currentQueue, vars, dat.dbmode, (error) -> {
+                                errors[index] = error;
+                                throw new ErrorInducedException(error);
+                            });
+                        }
+                        catch (ErrorInducedException ex) {
+                            results[i] = null;
+                        }
+                    }
+                }
+                catch (TagData.NotThreadSafeException ex) {
+                    notThreadSafe.set(true);
+                }
+                finally {
+                    TagData.setThreadSafeOnly(previous);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evaluates the tag for every entry of the list, in parallel, giving the results in list order (null for entries that errored).
+     * Any errors are then reported in list order on the calling thread.
+     * Returns null, reporting nothing, if an object that is not thread safe was reached, for the caller to evaluate sequentially instead.
+     */
+    private static AbstractTagObject[] evaluateParallel(TagData dat, Argument arg, String valueName, List<AbstractTagObject> input, Action<String> errorHandle) {
+        AbstractTagObject[] results = new AbstractTagObject[input.size()];
+        String[] errors = new String[input.size()];
+        AtomicBoolean notThreadSafe = new AtomicBoolean(false);
+        ForkJoinPool.commonPool().invoke(new ParallelEvaluation(dat, arg, valueName, input, results, errors, DenizenEngine.current(),
+                notThreadSafe, 0, input.size()));
+        if (notThreadSafe.get()) {
+            return null;
+        }
+        for (String error : errors) {
+            if (error != null) {
+                errorHandle.run(error);
+            }
+        }
+        return results;
+    }
+
+    private static AbstractTagObject parse(TagData dat, ListTag original, String tagName, boolean forceParallel) {
+        if (!dat.hasNextModifier()) {
+            if (!dat.hasFallback()) {
+                dat.error.run("ListTag." + tagName + " requires a modifier input!");
+            }
+            return NullTag.NULL;
+        }
+        Action<String> errorHandle = (s) -> {
+            dat.error.run("Failed to handle tag within a ListTag." + tagName + " run: " + s);
+        };
+        Argument arg = dat.bits[dat.currentIndex()].variable;
+        if (rejectImpure(dat, arg, tagName, forceParallel)) {
+            return NullTag.NULL;
+        }
+        ListTag result = new ListTag(original.internal.size());
+        AbstractTagObject[] outputs = useParallel(dat, arg, original.internal.size(), forceParallel)
+                ? evaluateParallel(dat, arg, "parse_value", original.internal, errorHandle) : null;
+        if (outputs != null) {
+            for (AbstractTagObject outp : outputs) {
+                result.internal.add(outp == null ? NullTag.NULL : outp);
+            }
+            return result;
+        }
+        HashMap<String, AbstractTagObject> vars = dat.variables == null ? new HashMap<>() : new HashMap<>(dat.variables);
+        for (AbstractTagObject ato : original.internal) {
+            vars.put("parse_value", ato);
+            AbstractTagObject outp = arg.parse(dat.currentQueue, vars, dat.dbmode, errorHandle);
+            result.internal.add(outp);
+        }
+        return result;
+    }
+
+    private static AbstractTagObject filter(TagData dat, ListTag original, String tagName, boolean forceParallel) {
+        if (!dat.hasNextModifier()) {
+            if (!dat.hasFallback()) {
+                dat.error.run("ListTag." + tagName + " requires a modifier input!");
+            }
+            return NullTag.NULL;
+        }
+        Action<String> errorHandle = (s) -> {
+            dat.error.run("Failed to handle tag within a ListTag." + tagName + " run: " + s);
+        };
+        Argument arg = dat.bits[dat.currentIndex()].variable;
+        if (rejectImpure(dat, arg, tagName, forceParallel)) {
+            return NullTag.NULL;
+        }
+        ListTag result = new ListTag(original.internal.size());
+        AbstractTagObject[] outputs = useParallel(dat, arg, original.internal.size(), forceParallel)
+                ? evaluateParallel(dat, arg, "filter_value", original.internal, errorHandle) : null;
+        if (outputs != null) {
+            for (int i = 0; i < outputs.length; i++) {
+                if (outputs[i] == null) {
+                    continue;
+                }
+                BooleanTag bt = BooleanTag.getFor(errorHandle, outputs[i]);
+                if (bt.getInternal()) {
+                    result.internal.add(original.internal.get(i));
+                }
+            }
+            return result;
+        }
+        HashMap<String, AbstractTagObject> vars = dat.variables == null ? new HashMap<>() : new HashMap<>(dat.variables);
+        for (AbstractTagObject ato : original.internal) {
+            vars.put("filter_value", ato);
+            AbstractTagObject outp = arg.parse(dat.currentQueue, vars, dat.dbmode, errorHandle);
+            BooleanTag bt = BooleanTag.getFor(errorHandle, outp);
+            if (bt.getInternal()) {
+                result.internal.add(ato);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sort key of every entry of the list: the entry itself, or the result of the tag modifier if there is one.
+     */
+    private static AbstractTagObject[] sortKeys(TagData dat, List<AbstractTagObject> list, String tagName) {
+        if (!dat.hasNextModifier()) {
+            return list.toArray(new AbstractTagObject[list.size()]);
+        }
+        Action<String> errorHandle = (s) -> {
+            dat.error.run("Failed to handle tag within a ListTag." + tagName + " run: " + s);
+        };
+        Argument arg = dat.bits[dat.currentIndex()].variable;
+        AbstractTagObject[] keys = useParallel(dat, arg, list.size(), false)
+                ? evaluateParallel(dat, arg, "sort_value", list, errorHandle) : null;
+        if (keys != null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == null) {
+                    keys[i] = NullTag.NULL;
+                }
+            }
+            return keys;
+        }
+        keys = new AbstractTagObject[list.size()];
+        HashMap<String, AbstractTagObject> vars = dat.variables == null ? new HashMap<>() : new HashMap<>(dat.variables);
+        for (int i = 0; i < keys.length; i++) {
+            vars.put("sort_value", list.get(i));
+            keys[i] = arg.parse(dat.currentQueue, vars, dat.dbmode, errorHandle);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a copy of the list, ordered by comparing entry indices. The sort is stable, and done in parallel for long lists.
+     */
+    private static ListTag sortedBy(List<AbstractTagObject> list, Comparator<Integer> comparator) {
+        Integer[] order = new Integer[list.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        if (order.length >= parallelThreshold) {
+            Arrays.parallelSort(order, comparator);
+        }
+        else {
+            Arrays.sort(order, comparator);
+        }
+        ListTag result = new ListTag(order.length);
+        for (int index : order) {
+            result.internal.add(list.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * Splits text into alternating runs of digits and non-digits, with leading zeroes removed from runs of digits.
+     */
+    private static String[] alphanumericChunks(String text) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            boolean digits = Character.isDigit(text.charAt(start));
+            int end = start + 1;
+            while (end < text.length() && Character.isDigit(text.charAt(end)) == digits) {
+                end++;
+            }
+            if (digits) {
+                while (start < end - 1 && text.charAt(start) == '0') {
+                    start++;
+                }
+            }
+            chunks.add(text.substring(start, end));
+            start = end;
+        }
+        return chunks.toArray(new String[chunks.size()]);
+    }
+
+    private static int compareAlphanumeric(String[] a, String[] b) {
+        int len = Math.min(a.length, b.length);
+        for (int i = 0; i < len; i++) {
+            String x = a[i];
+            String y = b[i];
+            int comp;
+            if (Character.isDigit(x.charAt(0)) && Character.isDigit(y.charAt(0))) {
+                comp = x.length() != y.length() ? Integer.compare(x.length(), y.length()) : x.compareTo(y);
+            }
+            else {
+                comp = x.compareTo(y);
+            }
+            if (comp != 0) {
+                return comp;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
     public static ListTag getForSaved(Action<String> error, String text) {
         List<String> strs = CoreUtilities.split(text, '|');
         ListTag lt = new ListTag();
@@ -385,6 +802,23 @@ public class ListTag extends AbstractTagObject {
         return lt;
     }
 
+    public static void writeBinary(AbstractTagObject obj, DataOutput out) throws IOException {
+        List<AbstractTagObject> list = ((ListTag) obj).internal;
+        BinarySaveCodec.writeVarInt(out, list.size());
+        for (AbstractTagObject item : list) {
+            BinarySaveCodec.write(item, out);
+        }
+    }
+
+    public static ListTag readBinary(Action<String> error, ByteBuffer in) {
+        int size = BinarySaveCodec.readSize(in);
+        ListTag lt = new ListTag(size);
+        for (int i = 0; i < size; i++) {
+            lt.internal.add(BinarySaveCodec.read(error, in));
+        }
+        return lt;
+    }
+
     public static ListTag getFor(Action<String> error, String text) {
         List<String> strs = CoreUtilities.split(text, '|');
         ListTag lt = new ListTag();
@@ -407,6 +841,11 @@ public class ListTag extends AbstractTagObject {
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handleElseCase(TagData data) {
         return new TextTag(toString());
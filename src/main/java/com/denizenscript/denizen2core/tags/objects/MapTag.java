@@ -2,13 +2,18 @@ package com.denizenscript.denizen2core.tags.objects;
 
 import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
+import com.denizenscript.denizen2core.tags.BinarySaveCodec;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.tags.handlers.EscapeTagBase;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.arguments.TextArgumentBit;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,7 +42,7 @@ public class MapTag extends AbstractTagObject {
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -88,6 +93,25 @@ public class MapTag extends AbstractTagObject {
         return lt;
     }
 
+    public static void writeBinary(AbstractTagObject obj, DataOutput out) throws IOException {
+        HashMap<String, AbstractTagObject> map = ((MapTag) obj).internal;
+        BinarySaveCodec.writeVarInt(out, map.size());
+        for (Map.Entry<String, AbstractTagObject> entry : map.entrySet()) {
+            BinarySaveCodec.writeString(out, entry.getKey());
+            BinarySaveCodec.write(entry.getValue(), out);
+        }
+    }
+
+    public static MapTag readBinary(Action<String> error, ByteBuffer in) {
+        int size = BinarySaveCodec.readSize(in);
+        MapTag mt = new MapTag();
+        for (int i = 0; i < size; i++) {
+            String key = BinarySaveCodec.readString(in);
+            mt.internal.put(key, BinarySaveCodec.read(error, in));
+        }
+        return mt;
+    }
+
     public static MapTag getFor(Action<String> error, String text) {
         List<String> strs = CoreUtilities.split(text, '|');
         MapTag lt = new MapTag();
@@ -117,6 +141,11 @@ public class MapTag extends AbstractTagObject {
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handleElseCase(TagData data) {
         AbstractTagObject ato = internal.get(data.getNext());
@@ -4,6 +4,7 @@ import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 
 import java.util.HashMap;
@@ -22,7 +23,7 @@ public class NullTag extends AbstractTagObject {
     // @Description Represents a null value. Identified as exactly "&{NULL}".
     // -->
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
     }
@@ -32,6 +33,11 @@ public class NullTag extends AbstractTagObject {
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handleElseCase(TagData data) {
         return new TextTag(STRING_VAL);
@@ -8,6 +8,7 @@ import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 
 import java.util.HashMap;
@@ -42,7 +43,7 @@ public class QueueTag extends AbstractTagObject implements Denizen2Core.IntegerF
         return internal.qID;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -161,7 +162,7 @@ public class QueueTag extends AbstractTagObject implements Denizen2Core.IntegerF
     }
 
     public static QueueTag getForID(Action<String> error, long id) {
-        for (CommandQueue queue : Denizen2Core.queues) {
+        for (CommandQueue queue : Denizen2Core.getQueues()) {
             if (queue.qID == id) {
                 return new QueueTag(queue);
             }
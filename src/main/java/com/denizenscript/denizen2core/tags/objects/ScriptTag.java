@@ -3,11 +3,17 @@ package com.denizenscript.denizen2core.tags.objects;
 import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
+import com.denizenscript.denizen2core.commands.CommandScriptSection;
+import com.denizenscript.denizen2core.utilities.metrics.RollingStats;
 import com.denizenscript.denizen2core.Denizen2Core;
 import com.denizenscript.denizen2core.scripts.CommandScript;
+import com.denizenscript.denizen2core.scripts.commontypes.ProcedureCache;
+import com.denizenscript.denizen2core.scripts.commontypes.ProcedureScript;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 import com.denizenscript.denizen2core.utilities.yaml.StringHolder;
+import com.denizenscript.denizen2core.utilities.yaml.YamlPath;
 
 import java.util.HashMap;
 import java.util.Set;
@@ -32,7 +38,7 @@ public class ScriptTag extends AbstractTagObject {
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -53,7 +59,7 @@ public class ScriptTag extends AbstractTagObject {
         // @ReturnType BooleanTag
         // @Returns whether the YAML has the specified key.
         // -->
-        handlers.put("has_yaml_key", (dat, obj) -> BooleanTag.getForBoolean(((ScriptTag) obj).internal.contents.contains(dat.getNextModifier().toString())));
+        handlers.put("has_yaml_key", (dat, obj) -> BooleanTag.getForBoolean(((ScriptTag) obj).internal.contents.contains(YamlPath.getNextModifierPath(dat))));
         // <--[tag]
         // @Since 0.3.0
         // @Name ScriptTag.is_yaml_list[<TextTag>]
@@ -62,7 +68,7 @@ public class ScriptTag extends AbstractTagObject {
         // @ReturnType BooleanTag
         // @Returns whether the YAML has the specified key and it is a list typed YAML key.
         // -->
-        handlers.put("is_yaml_list", (dat, obj) -> BooleanTag.getForBoolean(((ScriptTag) obj).internal.contents.isList(dat.getNextModifier().toString())));
+        handlers.put("is_yaml_list", (dat, obj) -> BooleanTag.getForBoolean(((ScriptTag) obj).internal.contents.isList(YamlPath.getNextModifierPath(dat))));
         // <--[tag]
         // @Since 0.3.0
         // @Name ScriptTag.yaml_key[<TextTag>]
@@ -73,7 +79,7 @@ public class ScriptTag extends AbstractTagObject {
         // @Example "MyTask" .yaml_key[type] returns "task".
         // -->
         handlers.put("yaml_key", (dat, obj) -> {
-            String val = ((ScriptTag) obj).internal.contents.getString(dat.getNextModifier().toString());
+            String val = ((ScriptTag) obj).internal.contents.getString(YamlPath.getNextModifierPath(dat));
             if (val == null) {
                 if (!dat.hasFallback()) {
                     dat.error.run("No contents for the specified YAML key! Does it exist in the script?");
@@ -90,7 +96,7 @@ public class ScriptTag extends AbstractTagObject {
         // @Returns the contents of the YAML key, as a list of tag objects.
         // -->
         handlers.put("yaml_list", (dat, obj) -> {
-            ListTag val = ((ScriptTag) obj).internal.contents.getListTag(dat.getNextModifier().toString());
+            ListTag val = ((ScriptTag) obj).internal.contents.getListTag(YamlPath.getNextModifierPath(dat));
             if (val == null) {
                 if (!dat.hasFallback()) {
                     dat.error.run("No valid list at the specified YAML key! Does it exist?");
@@ -109,7 +115,7 @@ public class ScriptTag extends AbstractTagObject {
         // @Example "MyTask" .yaml_key[type] returns "task".
         // -->
         handlers.put("list_keys", (dat, obj) -> {
-            Set<StringHolder> val = ((ScriptTag) obj).internal.contents.getConfigurationSection(dat.getNextModifier().toString()).getKeys(false);
+            Set<StringHolder> val = ((ScriptTag) obj).internal.contents.getConfigurationSection(YamlPath.getNextModifierPath(dat)).getKeys(false);
             if (val == null) {
                 if (!dat.hasFallback()) {
                     dat.error.run("No valid keys at the specified YAML key! Does it exist?");
@@ -140,10 +146,92 @@ public class ScriptTag extends AbstractTagObject {
         // @Returns the number of ticks that the script has been run during.
         // -->
         handlers.put("ticks_ran", (dat, obj) -> new IntegerTag(((ScriptTag) obj).internal.ticksRan));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ScriptTag.recent_stats[<DurationTag>]
+        // @Updated 2026/10/19
+        // @Group Identification
+        // @ReturnType MapTag
+        // @Returns statistics of the script's runs within the given recent span of time (up to 5 minutes).
+        // The map has "time_used" (a DurationTag), "runs" (an IntegerTag), and "p50" and "p99" (DurationTags of how long
+        // the median and slowest 1% of runs took). A "run" is one continuous stretch of the script running, without waiting.
+        // Spans up to a minute are counted to the second, and longer spans to the minute.
+        // @Example "myscript" .recent_stats[1m].get[time_used] might return "0.25".
+        // -->
+        handlers.put("recent_stats", (dat, obj) -> statsMap(((ScriptTag) obj).internal.recentStats, dat.getNextModifier(), dat));
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ScriptTag.recent_section_stats[<ListTag>]
+        // @Updated 2026/10/19
+        // @Group Identification
+        // @ReturnType MapTag
+        // @Returns statistics of one section of the script within a recent span of time, given as a list of the section name and
+        // the span. See <@link tag ScriptTag.recent_stats[<DurationTag>]>ScriptTag.recent_stats<@/link>.
+        // @Example "myscript" .recent_section_stats[script|5s].get[runs] might return "3".
+        // -->
+        handlers.put("recent_section_stats", (dat, obj) -> {
+            ListTag input = ListTag.getFor(dat.error, dat.getNextModifier());
+            if (input.getInternal().size() != 2) {
+                if (!dat.hasFallback()) {
+                    dat.error.run("Invalid input to recent_section_stats, must be a section name and a duration!");
+                }
+                return NullTag.NULL;
+            }
+            String section = CoreUtilities.toLowerCase(input.getInternal().get(0).toString());
+            CommandScriptSection sect = ((ScriptTag) obj).internal.sections.get(section);
+            if (sect == null) {
+                if (!dat.hasFallback()) {
+                    dat.error.run("Invalid section name '" + section + "' for recent_section_stats!");
+                }
+                return NullTag.NULL;
+            }
+            return statsMap(sect.recentStats, input.getInternal().get(1), dat);
+        });
+        // <--[tag]
+        // @Since 0.5.5
+        // @Name ScriptTag.procedure_cache_stats
+        // @Updated 2026/10/19
+        // @Group Identification
+        // @ReturnType MapTag
+        // @Returns statistics of the result cache of a procedure script with <@link explanation Procedure Caching>caching<@/link> enabled.
+        // The map has "size" (the number of remembered results), "hits", "misses", and "evictions" (IntegerTags),
+        // and "hit_rate" (a NumberTag from 0 to 1).
+        // @Example "myprocedure" .procedure_cache_stats.get[hit_rate] might return "0.95".
+        // -->
+        handlers.put("procedure_cache_stats", (dat, obj) -> {
+            CommandScript script = ((ScriptTag) obj).internal;
+            if (!(script instanceof ProcedureScript) || ((ProcedureScript) script).cache == null) {
+                if (!dat.hasFallback()) {
+                    dat.error.run("Script '" + script.title + "' is not a procedure script with caching enabled!");
+                }
+                return NullTag.NULL;
+            }
+            ProcedureCache cache = ((ProcedureScript) script).cache;
+            long hits = cache.getHits();
+            long misses = cache.getMisses();
+            MapTag map = new MapTag();
+            map.getInternal().put("size", new IntegerTag(cache.size()));
+            map.getInternal().put("hits", new IntegerTag(hits));
+            map.getInternal().put("misses", new IntegerTag(misses));
+            map.getInternal().put("evictions", new IntegerTag(cache.getEvictions()));
+            map.getInternal().put("hit_rate", new NumberTag(hits + misses == 0 ? 0 : hits / (double) (hits + misses)));
+            return map;
+        });
+    }
+
+    public static MapTag statsMap(RollingStats stats, AbstractTagObject span, TagData dat) {
+        DurationTag duration = DurationTag.getFor(dat.error, span);
+        RollingStats.Window window = stats.getWindow((int) Math.ceil(duration.getInternal()));
+        MapTag map = new MapTag();
+        map.getInternal().put("time_used", new DurationTag(window.nsUsed / 1000000000.0));
+        map.getInternal().put("runs", new IntegerTag(window.runs));
+        map.getInternal().put("p50", new DurationTag(window.percentileNanos(50) / 1000000000.0));
+        map.getInternal().put("p99", new DurationTag(window.percentileNanos(99) / 1000000000.0));
+        return map;
     }
 
     public static ScriptTag getFor(Action<String> error, String text) {
-        CommandScript cs = Denizen2Core.currentScripts.get(CoreUtilities.toLowerCase(text));
+        CommandScript cs = Denizen2Core.getCurrentScripts().get(CoreUtilities.toLowerCase(text));
         if (cs == null) {
             error.run("Invalid script name specified!");
             return null;
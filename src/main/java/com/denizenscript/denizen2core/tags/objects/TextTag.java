@@ -5,12 +5,15 @@ import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.tags.handlers.EscapeTagBase;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.utilities.Action;
+import com.denizenscript.denizen2core.utilities.RegexCache;
 import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
 
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class TextTag extends AbstractTagObject {
 
@@ -33,7 +36,7 @@ public class TextTag extends AbstractTagObject {
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // TODO: Tags to add:
@@ -160,7 +163,13 @@ public class TextTag extends AbstractTagObject {
         // @Returns whether the text matches a Regular Expression.
         // @Example "abc" .matches_regex[[a-z]+] returns "true".
         // -->
-        handlers.put("matches_regex", (dat, obj) -> BooleanTag.getForBoolean(((TextTag) obj).internal.matches(dat.getNextModifier().toString())));
+        handlers.put("matches_regex", (dat, obj) -> {
+            Pattern pattern = RegexCache.getNextModifierPattern(dat, 0);
+            if (pattern == null) {
+                return NullTag.NULL;
+            }
+            return BooleanTag.getForBoolean(pattern.matcher(((TextTag) obj).internal).matches());
+        });
         // <--[tag]
         // @Since 0.5.0
         // @Name TextTag.contains_any_text[<ListTag>]
@@ -467,6 +476,11 @@ public class TextTag extends AbstractTagObject {
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public String getTagTypeName() {
         return "TextTag";
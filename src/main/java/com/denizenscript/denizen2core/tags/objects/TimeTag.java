@@ -5,6 +5,7 @@ import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -46,7 +47,7 @@ public class TimeTag extends AbstractTagObject implements Denizen2Core.IntegerFo
         return internal.toInstant(ZoneOffset.UTC).toEpochMilli();
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // TODO: Tags to add:
@@ -311,6 +312,11 @@ public class TimeTag extends AbstractTagObject implements Denizen2Core.IntegerFo
         return handlers;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public AbstractTagObject handleElseCase(TagData data) {
         return new IntegerTag(getInternalInteger());
@@ -6,8 +6,10 @@ import com.denizenscript.denizen2core.tags.TagData;
 import com.denizenscript.denizen2core.utilities.Action;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
 import com.denizenscript.denizen2core.utilities.Function2;
+import com.denizenscript.denizen2core.utilities.SnapshotMap;
 import com.denizenscript.denizen2core.utilities.yaml.StringHolder;
 import com.denizenscript.denizen2core.utilities.yaml.YAMLConfiguration;
+import com.denizenscript.denizen2core.utilities.yaml.YamlPath;
 
 import java.util.HashMap;
 import java.util.List;
@@ -39,7 +41,7 @@ public class YamlTag extends AbstractTagObject {
         return internal;
     }
 
-    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new HashMap<>();
+    public final static HashMap<String, Function2<TagData, AbstractTagObject, AbstractTagObject>> handlers = new SnapshotMap<>();
 
     static {
         // <--[tag]
@@ -61,7 +63,7 @@ public class YamlTag extends AbstractTagObject {
         // @Returns the contents of the YAML key, as text. Note that read_object is preferred!
         // -->
         handlers.put("read", (dat, obj) -> {
-            String val = ((YamlTag) obj).internal.getString(dat.getNextModifier().toString());
+            String val = ((YamlTag) obj).internal.getString(YamlPath.getNextModifierPath(dat));
             if (val == null) {
                 if (!dat.hasFallback()) {
                     dat.error.run("No valid text at the specified YAML key! Does it exist?");
@@ -79,16 +81,16 @@ public class YamlTag extends AbstractTagObject {
         // @Returns the contents of the YAML key, as the correct object type. Interprets lists correctly.
         // -->
         handlers.put("read_object", (dat, obj) -> {
-            String modif = dat.getNextModifier().toString();
-            if (((YamlTag) obj).internal.isList(modif)) {
-                List<String> val = ((YamlTag) obj).internal.getStringList(dat.getNextModifier().toString());
+            YamlPath path = YamlPath.getNextModifierPath(dat);
+            if (((YamlTag) obj).internal.isList(path)) {
+                List<String> val = ((YamlTag) obj).internal.getStringList(path);
                 ListTag list = new ListTag();
                 for (String str : val) {
                     list.getInternal().add(Denizen2Core.loadFromSaved(dat.error, str));
                 }
                 return list;
             }
-            String val = ((YamlTag) obj).internal.getString(dat.getNextModifier().toString());
+            String val = ((YamlTag) obj).internal.getString(path);
             if (val == null) {
                 if (!dat.hasFallback()) {
                     dat.error.run("No valid text at the specified YAML key! Does it exist?");
@@ -105,7 +107,7 @@ public class YamlTag extends AbstractTagObject {
         // @ReturnType BooleanTag
         // @Returns whether the YAML has the specified key.
         // -->
-        handlers.put("has_key", (dat, obj) -> BooleanTag.getForBoolean(((YamlTag) obj).internal.contains(dat.getNextModifier().toString())));
+        handlers.put("has_key", (dat, obj) -> BooleanTag.getForBoolean(((YamlTag) obj).internal.contains(YamlPath.getNextModifierPath(dat))));
         // <--[tag]
         // @Since 0.3.0
         // @Name YamlTag.is_list[<TextTag>]
@@ -114,7 +116,7 @@ public class YamlTag extends AbstractTagObject {
         // @ReturnType BooleanTag
         // @Returns whether the YAML has the specified key and it is a list typed YAML key.
         // -->
-        handlers.put("is_list", (dat, obj) -> BooleanTag.getForBoolean(((YamlTag) obj).internal.isList(dat.getNextModifier().toString())));
+        handlers.put("is_list", (dat, obj) -> BooleanTag.getForBoolean(((YamlTag) obj).internal.isList(YamlPath.getNextModifierPath(dat))));
         // <--[tag]
         // @Since 0.3.0
         // @Name YamlTag.read_list[<TextTag>]
@@ -124,7 +126,7 @@ public class YamlTag extends AbstractTagObject {
         // @Returns the contents of the YAML key, as a list of text.
         // -->
         handlers.put("read_list", (dat, obj) -> {
-            List<String> val = ((YamlTag) obj).internal.getStringList(dat.getNextModifier().toString());
+            List<String> val = ((YamlTag) obj).internal.getStringList(YamlPath.getNextModifierPath(dat));
             if (val == null) {
                 if (!dat.hasFallback()) {
                     dat.error.run("No valid list at the specified YAML key! Does it exist?");
@@ -147,7 +149,7 @@ public class YamlTag extends AbstractTagObject {
         // -->
         handlers.put("list_keys", (dat, obj) -> {
             Set<StringHolder> val = ((YamlTag) obj).internal.getConfigurationSection(
-                    dat.hasNextModifier() ? dat.getNextModifier().toString() : "").getKeys(false);
+                    dat.hasNextModifier() ? YamlPath.getNextModifierPath(dat) : YamlPath.of("")).getKeys(false);
             if (val == null) {
                 if (!dat.hasFallback()) {
                     dat.error.run("No valid keys at the specified YAML key! Does it exist?");
@@ -164,7 +166,7 @@ public class YamlTag extends AbstractTagObject {
 
     public static YamlTag getFor(Action<String> error, String text) {
         text = CoreUtilities.toLowerCase(text);
-        Object o = Denizen2Core.filesLoadedByScripts.get(text);
+        Object o = Denizen2Core.getFilesLoadedByScripts().get(text);
         if (o == null || !(o instanceof YAMLConfiguration)) {
             error.run("That's not a valid YAML file!");
             return null;
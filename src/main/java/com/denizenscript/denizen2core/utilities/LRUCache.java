@@ -0,0 +1,86 @@
+package com.denizenscript.denizen2core.utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A small bounded least-recently-used cache, tracking its own hit and miss counts.
+ */
+public class LRUCache<K, V> {
+
+    private final LinkedHashMap<K, V> internal;
+
+    private final int capacity;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    public LRUCache(int maxSize) {
+        capacity = maxSize;
+        internal = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        V val = internal.get(key);
+        if (val == null) {
+            misses++;
+        }
+        else {
+            hits++;
+        }
+        return val;
+    }
+
+    public synchronized void put(K key, V value) {
+        internal.put(key, value);
+    }
+
+    /**
+     * Gets the cached value for a key, calculating and storing it if it is not yet present.
+     * The calculation may return null, in which case nothing is stored.
+     */
+    public synchronized V getOrCompute(K key, Function<K, V> calculator) {
+        V val = internal.get(key);
+        if (val != null) {
+            hits++;
+            return val;
+        }
+        misses++;
+        val = calculator.apply(key);
+        if (val != null) {
+            internal.put(key, val);
+        }
+        return val;
+    }
+
+    public synchronized void remove(K key) {
+        internal.remove(key);
+    }
+
+    public synchronized void clear() {
+        internal.clear();
+    }
+
+    public synchronized int size() {
+        return internal.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
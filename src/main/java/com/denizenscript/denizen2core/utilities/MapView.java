@@ -0,0 +1,166 @@
+package com.denizenscript.denizen2core.utilities;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A HashMap that reads and writes through to whichever map a supplier returns at the time of each call.
+ * Used to keep static fields that were always declared as HashMap working when the map behind them moved.
+ * Every HashMap method is overridden, and the inherited table is never used.
+ */
+public class MapView<K, V> extends HashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Supplier<? extends Map<K, V>> source;
+
+    public MapView(Supplier<? extends Map<K, V>> source) {
+        this.source = source;
+    }
+
+    private Map<K, V> map() {
+        return source.get();
+    }
+
+    @Override
+    public V get(Object key) {
+        return map().get(key);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return map().getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map().containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return map().containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return map().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map().isEmpty();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return map().keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return map().values();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return map().entrySet();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        map().forEach(action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || map().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return map().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return map().toString();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return map().put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> other) {
+        map().putAll(other);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return map().putIfAbsent(key, value);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return map().computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return map().computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return map().compute(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return map().merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        return map().replace(key, value);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        return map().replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        map().replaceAll(function);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return map().remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        return map().remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        map().clear();
+    }
+
+    private Object writeReplace() {
+        return new HashMap<>(map());
+    }
+
+    @Override
+    public HashMap<K, V> clone() {
+        return new HashMap<>(map());
+    }
+}
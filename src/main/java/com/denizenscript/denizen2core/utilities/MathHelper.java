@@ -15,7 +15,7 @@ public class MathHelper {
     public static MathOp[] operations = new MathOp[128];
     public static Action[] operators = new Action[OP_COUNT]; // Java is stupid. Pretend we have <MathContext> on this...
 
-    public static HashMap<String, Tuple<Integer, Action<MathContext>>> baseFunctions = new HashMap<>();
+    public static HashMap<String, Tuple<Integer, Action<MathContext>>> baseFunctions = new SnapshotMap<>();
 
     public static void FUNCTION_SIN(MathContext m) {
         double a = m.stk.pop();
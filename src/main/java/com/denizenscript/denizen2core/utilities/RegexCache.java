@@ -0,0 +1,113 @@
+package com.denizenscript.denizen2core.utilities;
+
+import com.denizenscript.denizen2core.arguments.TagBit;
+import com.denizenscript.denizen2core.tags.TagData;
+import com.denizenscript.denizen2core.utilities.debugging.ColorSet;
+
+import java.util.HashSet;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Helper to avoid recompiling the same regular expressions over and over.
+ */
+public class RegexCache {
+
+    private static class PatternKey {
+
+        public final String regex;
+
+        public final int flags;
+
+        public PatternKey(String r, int f) {
+            regex = r;
+            flags = f;
+        }
+
+        @Override
+        public int hashCode() {
+            return regex.hashCode() * 31 + flags;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PatternKey)) {
+                return false;
+            }
+            PatternKey other = (PatternKey) obj;
+            return flags == other.flags && regex.equals(other.regex);
+        }
+    }
+
+    private final static LRUCache<PatternKey, Pattern> cache = new LRUCache<>(256);
+
+    public static long getHits() {
+        return cache.getHits();
+    }
+
+    public static long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Tag part names that take a regular expression as their modifier.
+     * Literal modifiers on these tag parts are compiled once, when the tag itself is compiled.
+     * Addons that add regex-based tags may add their tag part names here.
+     */
+    public final static HashSet<String> regexTagParts = new SnapshotSet<>();
+
+    static {
+        regexTagParts.add("matches_regex");
+    }
+
+    /**
+     * Gets a compiled pattern for the regex and flags, reusing a cached copy when possible.
+     * Throws a PatternSyntaxException for invalid input.
+     */
+    public static Pattern getPattern(String regex, int flags) {
+        PatternKey key = new PatternKey(regex, flags);
+        Pattern pattern = cache.get(key);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex, flags);
+            cache.put(key, pattern);
+        }
+        return pattern;
+    }
+
+    /**
+     * Precompiles the modifier of a regex-taking tag bit, if it is a literal.
+     * Invalid patterns are silently left for runtime to report, as the tag part may not be a regex one for every object type.
+     */
+    public static void tryPrecompile(TagBit bit) {
+        if (bit.variable == null || !bit.variable.isConstant() || !regexTagParts.contains(bit.key)) {
+            return;
+        }
+        try {
+            bit.specialLocalData = getPattern(bit.variable.toString(), 0);
+        }
+        catch (PatternSyntaxException ex) {
+            // Ignore
+        }
+    }
+
+    /**
+     * Gets the pattern for the next modifier of a tag, using the precompiled pattern if one is available.
+     * Returns null (after erroring, if there is no fallback) if the regex is invalid.
+     */
+    public static Pattern getNextModifierPattern(TagData data, int flags) {
+        Object precompiled = data.bits[data.currentIndex()].specialLocalData;
+        if (precompiled instanceof Pattern && ((Pattern) precompiled).flags() == flags) {
+            return (Pattern) precompiled;
+        }
+        String regex = data.getNextModifier().toString();
+        try {
+            return getPattern(regex, flags);
+        }
+        catch (PatternSyntaxException ex) {
+            if (!data.hasFallback()) {
+                data.error.run("Invalid regex '" + ColorSet.emphasis + regex + ColorSet.warning + "': " + ex.getDescription());
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.denizenscript.denizen2core.utilities;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A map for registries that are read constantly (from any thread) and written rarely.
+ * Reads go to an immutable snapshot without any locking, and every change copies the snapshot
+ * and publishes the new one in a single step, so a reader always sees a complete, consistent map.
+ * Views (keySet, values, entrySet) are of the snapshot at the time they are requested, and cannot be modified.
+ * Extends HashMap only so that fields which were always declared as HashMap can hold one:
+ * every HashMap method is overridden, and the inherited table is never used.
+ */
+public class SnapshotMap<K, V> extends HashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient volatile Map<K, V> snapshot = Collections.emptyMap();
+
+    /**
+     * Returns the current immutable snapshot, which will never change.
+     */
+    public Map<K, V> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replaces the whole content of the map in a single step.
+     */
+    public synchronized void replaceWith(Map<? extends K, ? extends V> map) {
+        snapshot = Collections.unmodifiableMap(new HashMap<>(map));
+    }
+
+    private Map<K, V> copy() {
+        return new HashMap<>(snapshot);
+    }
+
+    private void publish(Map<K, V> map) {
+        snapshot = Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public V get(Object key) {
+        return snapshot.get(key);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return snapshot.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return snapshot.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return snapshot.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return snapshot.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return snapshot.values();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return snapshot.entrySet();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        snapshot.forEach(action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || snapshot.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return snapshot.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot.toString();
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        Map<K, V> map = copy();
+        V old = map.put(key, value);
+        publish(map);
+        return old;
+    }
+
+    @Override
+    public synchronized void putAll(Map<? extends K, ? extends V> other) {
+        Map<K, V> map = copy();
+        map.putAll(other);
+        publish(map);
+    }
+
+    @Override
+    public synchronized V putIfAbsent(K key, V value) {
+        V old = snapshot.get(key);
+        if (old == null) {
+            put(key, value);
+        }
+        return old;
+    }
+
+    @Override
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V old = snapshot.get(key);
+        if (old != null) {
+            return old;
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Map<K, V> map = copy();
+        V value = map.computeIfPresent(key, remappingFunction);
+        publish(map);
+        return value;
+    }
+
+    @Override
+    public synchronized V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Map<K, V> map = copy();
+        V value = map.compute(key, remappingFunction);
+        publish(map);
+        return value;
+    }
+
+    @Override
+    public synchronized V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Map<K, V> map = copy();
+        V result = map.merge(key, value, remappingFunction);
+        publish(map);
+        return result;
+    }
+
+    @Override
+    public synchronized V replace(K key, V value) {
+        if (!snapshot.containsKey(key)) {
+            return null;
+        }
+        return put(key, value);
+    }
+
+    @Override
+    public synchronized boolean replace(K key, V oldValue, V newValue) {
+        if (!snapshot.containsKey(key) || !Objects.equals(snapshot.get(key), oldValue)) {
+            return false;
+        }
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Map<K, V> map = copy();
+        map.replaceAll(function);
+        publish(map);
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        if (!snapshot.containsKey(key)) {
+            return null;
+        }
+        Map<K, V> map = copy();
+        V old = map.remove(key);
+        publish(map);
+        return old;
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        if (!snapshot.containsKey(key) || !Objects.equals(snapshot.get(key), value)) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        snapshot = Collections.emptyMap();
+    }
+
+    private Object writeReplace() {
+        return new HashMap<>(snapshot);
+    }
+
+    @Override
+    public SnapshotMap<K, V> clone() {
+        SnapshotMap<K, V> map = new SnapshotMap<>();
+        map.snapshot = snapshot;
+        return map;
+    }
+}
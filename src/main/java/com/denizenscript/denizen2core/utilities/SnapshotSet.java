@@ -0,0 +1,77 @@
+package com.denizenscript.denizen2core.utilities;
+
+import java.util.*;
+
+/**
+ * A set for registries that are read constantly (from any thread) and written rarely, backed by a {@link SnapshotMap}.
+ * Iteration is over the snapshot at the time it starts, and cannot remove elements.
+ * Extends HashSet only so that fields which were always declared as HashSet can hold one:
+ * every HashSet method is overridden, and the inherited table is never used.
+ */
+public class SnapshotSet<E> extends HashSet<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SnapshotMap<E, Boolean> map = new SnapshotMap<>();
+
+    @Override
+    public boolean add(E e) {
+        return map.put(e, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return map.remove(o) != null;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return map.keySet().iterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return map.keySet().spliterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return map.keySet().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return map.keySet().toArray(a);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    private Object writeReplace() {
+        return new HashSet<>(map.keySet());
+    }
+
+    @Override
+    public SnapshotSet<E> clone() {
+        SnapshotSet<E> set = new SnapshotSet<>();
+        set.map.replaceWith(map.snapshot());
+        return set;
+    }
+}
@@ -1,25 +1,86 @@
 package com.denizenscript.denizen2core.utilities.debugging;
 
 import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.utilities.AbstractSender;
+
+import java.util.ArrayDeque;
+import java.util.List;
 
 /**
  * Quick helper to output debug information.
  */
 public class Debug {
 
+    private final static ThreadLocal<ArrayDeque<List<Runnable>>> buffers = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Causes debug output on the current thread to be held in the given list rather than shown, until stopBuffering is called.
+     * Used for work done off the main thread, so its output can be shown later and in order.
+     * Calls may be nested, in which case output goes to the innermost list.
+     */
+    public static void startBuffering(List<Runnable> output) {
+        buffers.get().push(output);
+    }
+
+    public static void stopBuffering() {
+        buffers.get().pop();
+    }
+
+    /**
+     * Shows debug output previously held by startBuffering.
+     */
+    public static void replay(List<Runnable> output) {
+        for (Runnable run : output) {
+            run.run();
+        }
+        output.clear();
+    }
+
     public static void exception(Exception ex) {
+        List<Runnable> output = buffers.get().peek();
+        if (output != null) {
+            output.add(() -> exception(ex));
+            return;
+        }
         Denizen2Core.getImplementation().outputException(ex);
     }
 
     public static void error(String message) {
+        List<Runnable> output = buffers.get().peek();
+        if (output != null) {
+            output.add(() -> error(message));
+            return;
+        }
         Denizen2Core.getImplementation().outputError(message);
     }
 
     public static void info(String message) {
+        List<Runnable> output = buffers.get().peek();
+        if (output != null) {
+            output.add(() -> info(message));
+            return;
+        }
         Denizen2Core.getImplementation().outputInfo(message);
     }
 
     public static void good(String message) {
+        List<Runnable> output = buffers.get().peek();
+        if (output != null) {
+            output.add(() -> good(message));
+            return;
+        }
         Denizen2Core.getImplementation().outputGood(message);
     }
+
+    /**
+     * Sends a colored message to a sender, held like any other debug output while buffering.
+     */
+    public static void send(AbstractSender sender, String message) {
+        List<Runnable> output = buffers.get().peek();
+        if (output != null) {
+            output.add(() -> send(sender, message));
+            return;
+        }
+        sender.sendColoredMessage(message);
+    }
 }
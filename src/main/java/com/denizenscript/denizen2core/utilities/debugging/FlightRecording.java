@@ -0,0 +1,112 @@
+package com.denizenscript.denizen2core.utilities.debugging;
+
+import com.denizenscript.denizen2core.arguments.TagArgumentBit;
+import com.denizenscript.denizen2core.commands.CommandEntry;
+import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.commands.CommandStackEntry;
+import com.denizenscript.denizen2core.events.ScriptEvent;
+
+/**
+ * Emits Java Flight Recorder events for engine activity: queue runs, commands, slow tags, script events, reloads, and YAML file access.
+ * Each kind of event has a flag that is only true while a running recording has that event enabled,
+ * so when not recording, each hook costs a single field check.
+ * On Java versions without JFR, nothing is ever recorded.
+ * Event objects are passed around as plain Objects so that nothing here needs the JFR classes unless they are in use.
+ */
+public class FlightRecording {
+
+    public static volatile boolean queueRuns = false;
+
+    public static volatile boolean commands = false;
+
+    public static volatile boolean tags = false;
+
+    public static volatile boolean scriptEvents = false;
+
+    public static volatile boolean reloads = false;
+
+    public static volatile boolean yaml = false;
+
+    private static boolean available = false;
+
+    /**
+     * Registers the engine's event types with JFR, if JFR is available.
+     */
+    public static void init() {
+        if (available) {
+            return;
+        }
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+        }
+        catch (ClassNotFoundException ex) {
+            return;
+        }
+        try {
+            FlightRecordingEvents.register();
+            available = true;
+        }
+        catch (Throwable ex) {
+            Debug.error("Failed to register flight recorder events!");
+            Debug.exception(ex instanceof Exception ? (Exception) ex : new RuntimeException(ex));
+        }
+    }
+
+    /**
+     * Updates the event flags from the current recordings' settings.
+     * Called automatically when recordings start or stop, and periodically to catch settings changes.
+     */
+    public static void refresh() {
+        if (available) {
+            FlightRecordingEvents.refresh();
+        }
+    }
+
+    public static Object beginQueueRun(CommandQueue queue) {
+        return FlightRecordingEvents.beginQueueRun(queue);
+    }
+
+    public static void endQueueRun(Object event) {
+        FlightRecordingEvents.endQueueRun(event);
+    }
+
+    public static Object beginCommand() {
+        return FlightRecordingEvents.beginCommand();
+    }
+
+    public static void endCommand(Object event, CommandQueue queue, CommandStackEntry stackEntry, CommandEntry entry) {
+        FlightRecordingEvents.endCommand(event, queue, stackEntry, entry);
+    }
+
+    public static Object beginTag() {
+        return FlightRecordingEvents.beginTag();
+    }
+
+    public static void endTag(Object event, TagArgumentBit tag) {
+        FlightRecordingEvents.endTag(event, tag);
+    }
+
+    public static Object beginScriptEvent() {
+        return FlightRecordingEvents.beginScriptEvent();
+    }
+
+    public static void endScriptEvent(Object event, ScriptEvent scriptEvent) {
+        FlightRecordingEvents.endScriptEvent(event, scriptEvent);
+    }
+
+    public static Object beginReload() {
+        return FlightRecordingEvents.beginReload();
+    }
+
+    public static void endReload(Object event, String stage, boolean onlyChanged, int scripts) {
+        FlightRecordingEvents.endReload(event, stage, onlyChanged, scripts);
+    }
+
+    public static Object beginYaml() {
+        return FlightRecordingEvents.beginYaml();
+    }
+
+    public static void endYaml(Object event, String operation, String path) {
+        FlightRecordingEvents.endYaml(event, operation, path);
+    }
+}
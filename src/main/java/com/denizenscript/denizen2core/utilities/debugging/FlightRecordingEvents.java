@@ -0,0 +1,237 @@
+package com.denizenscript.denizen2core.utilities.debugging;
+
+import com.denizenscript.denizen2core.arguments.TagArgumentBit;
+import com.denizenscript.denizen2core.commands.CommandEntry;
+import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.commands.CommandStackEntry;
+import com.denizenscript.denizen2core.events.ScriptEvent;
+import jdk.jfr.*;
+
+/**
+ * The JFR event types behind FlightRecording. Only loaded when JFR is available.
+ */
+class FlightRecordingEvents {
+
+    @Name("denizen2.QueueRun")
+    @Label("Queue Run")
+    @Category("Denizen2")
+    @Description("A queue running without waiting, from the start of a tick's work on it until it waits or finishes.")
+    static class QueueRunEvent extends Event {
+
+        @Label("Queue ID")
+        long queueId;
+
+        @Label("Script")
+        String script;
+    }
+
+    @Name("denizen2.Command")
+    @Label("Command")
+    @Category("Denizen2")
+    @Description("A single command running.")
+    static class CommandEvent extends Event {
+
+        @Label("Queue ID")
+        long queueId;
+
+        @Label("Script")
+        String script;
+
+        @Label("Line")
+        String line;
+    }
+
+    @Name("denizen2.Tag")
+    @Label("Tag")
+    @Category("Denizen2")
+    @Description("A tag that took longer than the threshold to fill.")
+    @Threshold("1 ms")
+    static class TagEvent extends Event {
+
+        @Label("Tag")
+        String tag;
+    }
+
+    @Name("denizen2.ScriptEvent")
+    @Label("Script Event")
+    @Category("Denizen2")
+    @Description("A script event firing, including all world script handlers it runs.")
+    static class ScriptEventEvent extends Event {
+
+        @Label("Event")
+        String event;
+
+        @Label("Handlers")
+        int handlers;
+    }
+
+    @Name("denizen2.Reload")
+    @Label("Script Reload")
+    @Category("Denizen2")
+    @Description("One stage of building a reload of scripts (possibly in the background), or applying it.")
+    static class ReloadEvent extends Event {
+
+        @Label("Stage")
+        String stage;
+
+        @Label("Only Changed")
+        boolean onlyChanged;
+
+        @Label("Scripts")
+        int scripts;
+    }
+
+    @Name("denizen2.YamlFile")
+    @Label("YAML File Access")
+    @Category("Denizen2")
+    @Description("A script loading or saving a YAML file.")
+    static class YamlEvent extends Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Path")
+        String path;
+    }
+
+    private static EventType queueRunType;
+
+    private static EventType commandType;
+
+    private static EventType tagType;
+
+    private static EventType scriptEventType;
+
+    private static EventType reloadType;
+
+    private static EventType yamlType;
+
+    static void register() {
+        jdk.jfr.FlightRecorder.register(QueueRunEvent.class);
+        jdk.jfr.FlightRecorder.register(CommandEvent.class);
+        jdk.jfr.FlightRecorder.register(TagEvent.class);
+        jdk.jfr.FlightRecorder.register(ScriptEventEvent.class);
+        jdk.jfr.FlightRecorder.register(ReloadEvent.class);
+        jdk.jfr.FlightRecorder.register(YamlEvent.class);
+        queueRunType = EventType.getEventType(QueueRunEvent.class);
+        commandType = EventType.getEventType(CommandEvent.class);
+        tagType = EventType.getEventType(TagEvent.class);
+        scriptEventType = EventType.getEventType(ScriptEventEvent.class);
+        reloadType = EventType.getEventType(ReloadEvent.class);
+        yamlType = EventType.getEventType(YamlEvent.class);
+        jdk.jfr.FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    static void refresh() {
+        FlightRecording.queueRuns = queueRunType.isEnabled();
+        FlightRecording.commands = commandType.isEnabled();
+        FlightRecording.tags = tagType.isEnabled();
+        FlightRecording.scriptEvents = scriptEventType.isEnabled();
+        FlightRecording.reloads = reloadType.isEnabled();
+        FlightRecording.yaml = yamlType.isEnabled();
+    }
+
+    static Object beginQueueRun(CommandQueue queue) {
+        QueueRunEvent event = new QueueRunEvent();
+        event.queueId = queue.qID;
+        CommandStackEntry bottom = queue.commandStack.peekLast();
+        event.script = bottom == null ? null : bottom.scriptTitle;
+        event.begin();
+        return event;
+    }
+
+    static void endQueueRun(Object obj) {
+        QueueRunEvent event = (QueueRunEvent) obj;
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    static Object beginCommand() {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endCommand(Object obj, CommandQueue queue, CommandStackEntry stackEntry, CommandEntry entry) {
+        CommandEvent event = (CommandEvent) obj;
+        event.end();
+        if (event.shouldCommit()) {
+            event.queueId = queue.qID;
+            event.script = stackEntry.scriptTitle;
+            event.line = entry.originalLine;
+            event.commit();
+        }
+    }
+
+    static Object beginTag() {
+        TagEvent event = new TagEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endTag(Object obj, TagArgumentBit tag) {
+        TagEvent event = (TagEvent) obj;
+        event.end();
+        if (event.shouldCommit()) {
+            event.tag = tag.getString();
+            event.commit();
+        }
+    }
+
+    static Object beginScriptEvent() {
+        ScriptEventEvent event = new ScriptEventEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endScriptEvent(Object obj, ScriptEvent scriptEvent) {
+        ScriptEventEvent event = (ScriptEventEvent) obj;
+        event.end();
+        if (event.shouldCommit()) {
+            event.event = scriptEvent.getName();
+            event.handlers = scriptEvent.usages.size();
+            event.commit();
+        }
+    }
+
+    static Object beginReload() {
+        ReloadEvent event = new ReloadEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endReload(Object obj, String stage, boolean onlyChanged, int scripts) {
+        ReloadEvent event = (ReloadEvent) obj;
+        event.end();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.onlyChanged = onlyChanged;
+            event.scripts = scripts;
+            event.commit();
+        }
+    }
+
+    static Object beginYaml() {
+        YamlEvent event = new YamlEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endYaml(Object obj, String operation, String path) {
+        YamlEvent event = (YamlEvent) obj;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.path = path;
+            event.commit();
+        }
+    }
+}
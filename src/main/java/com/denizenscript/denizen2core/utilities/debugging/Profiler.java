@@ -0,0 +1,176 @@
+package com.denizenscript.denizen2core.utilities.debugging;
+
+import com.denizenscript.denizen2core.commands.CommandEntry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * An opt-in profiler that attributes run time to script, section, command line, tag, and tag hop.
+ * Only records on the thread that started it (normally the main thread), and costs a single field check when off.
+ */
+public class Profiler {
+
+    public static class Node {
+
+        public final String name;
+
+        public final Node parent;
+
+        public final HashMap<String, Node> children = new HashMap<>();
+
+        public long totalNs = 0;
+
+        public long childNs = 0;
+
+        public long calls = 0;
+
+        public Node(Node parent, String name) {
+            this.parent = parent;
+            this.name = name;
+        }
+
+        public Node child(String name) {
+            Node node = children.get(name);
+            if (node == null) {
+                node = new Node(this, name);
+                children.put(name, node);
+            }
+            return node;
+        }
+
+        public long selfNs() {
+            return totalNs - childNs;
+        }
+
+        public String path() {
+            if (parent == null || parent.parent == null) {
+                return name;
+            }
+            return parent.path() + ";" + name;
+        }
+    }
+
+    private static volatile Thread profiledThread = null;
+
+    private static Node root = new Node(null, "");
+
+    private static Node current = root;
+
+    /**
+     * Returns whether the calling thread is being profiled.
+     */
+    public static boolean isActive() {
+        return profiledThread == Thread.currentThread();
+    }
+
+    /**
+     * Starts (or continues) profiling the calling thread.
+     */
+    public static void start() {
+        current = root;
+        profiledThread = Thread.currentThread();
+    }
+
+    public static void stop() {
+        profiledThread = null;
+    }
+
+    public static void reset() {
+        root = new Node(null, "");
+        current = root;
+    }
+
+    /**
+     * Enters one or more nested frames, returning the start time to pass to exit.
+     * Only call when isActive() is true.
+     */
+    public static long enter(String... frames) {
+        for (String frame : frames) {
+            current = current.child(frame);
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Leaves the given number of frames entered at the given start time.
+     */
+    public static void exit(long start, int frames) {
+        long elapsed = System.nanoTime() - start;
+        for (int i = 0; i < frames && current.parent != null; i++) {
+            current.totalNs += elapsed;
+            current.calls++;
+            current = current.parent;
+            current.childNs += elapsed;
+        }
+    }
+
+    /**
+     * Returns the script, section (if any), and line frames for a command.
+     */
+    public static String[] commandFrames(CommandEntry entry) {
+        String[] frames = entry.profilerFrames;
+        if (frames == null) {
+            String script = entry.scriptName;
+            String line = clean("#" + entry.ownIndex + " " + entry.originalLine);
+            int dot = script.indexOf('.');
+            if (dot > 0) {
+                frames = new String[] { clean(script.substring(0, dot)), clean(script.substring(dot + 1)), line };
+            }
+            else {
+                frames = new String[] { clean(script), line };
+            }
+            entry.profilerFrames = frames;
+        }
+        return frames;
+    }
+
+    /**
+     * Makes a frame name safe for the collapsed stack format.
+     */
+    public static String clean(String frame) {
+        return frame.replace(';', ',').replace('\n', ' ').replace('\r', ' ').replace('\0', ' ');
+    }
+
+    private static void collect(Node node, List<Node> nodes) {
+        for (Node child : node.children.values()) {
+            nodes.add(child);
+            collect(child, nodes);
+        }
+    }
+
+    /**
+     * Writes all recorded time in collapsed stack format (one "frame;frame;frame microseconds" line per stack),
+     * as read by flame graph tools.
+     */
+    public static void writeCollapsed(Writer writer) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        collect(root, nodes);
+        for (Node node : nodes) {
+            long self = node.selfNs() / 1000;
+            if (self > 0) {
+                writer.write(node.path() + " " + self + "\n");
+            }
+        }
+    }
+
+    /**
+     * Returns a report of the stacks with the most time spent in themselves.
+     */
+    public static String topReport(int count) {
+        List<Node> nodes = new ArrayList<>();
+        collect(root, nodes);
+        nodes.sort((a, b) -> Long.compare(b.selfNs(), a.selfNs()));
+        StringBuilder sb = new StringBuilder();
+        sb.append("Top ").append(Math.min(count, nodes.size())).append(" of ").append(nodes.size()).append(" profiled stacks by own time:");
+        for (int i = 0; i < count && i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            sb.append("\n").append(String.format("%10.3fms own %10.3fms total %8d calls  ", node.selfNs() / 1000000.0,
+                    node.totalNs / 1000000.0, node.calls)).append(node.path());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,206 @@
+package com.denizenscript.denizen2core.utilities.debugging;
+
+import com.denizenscript.denizen2core.commands.CommandEntry;
+import com.denizenscript.denizen2core.commands.CommandQueue;
+import com.denizenscript.denizen2core.commands.CommandStackEntry;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Watches for ticks that run too long, and reports which queue, script, and command is running when they do.
+ * Optionally asks the queue the tick is running from its queue list to yield (continue next tick) or stop, at its next command.
+ * Queues running inside that queue (EG, procedures or event handlers) are never asked, as whatever runs them expects them to finish first,
+ * so the request applies once control is back in the queue the tick is running.
+ */
+public class TickWatchdog {
+
+    public enum Response {
+        /**
+         * Only report the long tick.
+         */
+        NONE,
+        /**
+         * Have the running queue pause at its next command, and continue from there next tick.
+         */
+        YIELD,
+        /**
+         * Stop the running queue at its next command.
+         */
+        STOP
+    }
+
+    /**
+     * When the current tick started (System.nanoTime), or 0 when no tick is running.
+     */
+    private static volatile long tickStartNanos = 0;
+
+    private static volatile long tickNumber = 0;
+
+    private static volatile Thread tickThread = null;
+
+    /**
+     * The queue executing right now, on the tick thread.
+     */
+    private static volatile CommandQueue runningQueue = null;
+
+    public static void tickStarted(long tick) {
+        tickThread = Thread.currentThread();
+        tickNumber = tick;
+        tickStartNanos = System.nanoTime();
+    }
+
+    public static void tickEnded() {
+        tickStartNanos = 0;
+    }
+
+    /**
+     * Marks a queue of the default engine as running, returning the queue it runs within (if any) to pass back to queueStopped.
+     */
+    public static CommandQueue queueStarted(CommandQueue queue) {
+        CommandQueue outer = runningQueue;
+        queue.runningWithin = outer;
+        runningQueue = queue;
+        return outer;
+    }
+
+    public static void queueStopped(CommandQueue outer) {
+        runningQueue = outer;
+    }
+
+    /**
+     * The queue the tick is running from the engine's queue list, which is the only queue asked to yield or stop.
+     */
+    private static volatile CommandQueue tickQueue = null;
+
+    /**
+     * Marks a queue from the engine's queue list as being run by the tick.
+     */
+    public static void tickQueueStarted(CommandQueue queue) {
+        tickQueue = queue;
+    }
+
+    public static void tickQueueStopped(CommandQueue queue) {
+        tickQueue = null;
+        // Any request not acted on was meant for this tick only.
+        queue.watchdogRequest = null;
+    }
+
+    private final long thresholdNanos;
+
+    private final boolean javaStacks;
+
+    private final Response response;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private long reportedTick = -1;
+
+    public TickWatchdog(long thresholdMillis, boolean javaStacks, Response response) {
+        thresholdNanos = thresholdMillis * 1000000L;
+        this.javaStacks = javaStacks;
+        this.response = response;
+        thread = new Thread(this::run, "Denizen2 Tick Watchdog");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    private void run() {
+        long checkMillis = Math.max(1, thresholdNanos / 4000000L);
+        while (running) {
+            try {
+                Thread.sleep(checkMillis);
+            }
+            catch (InterruptedException ex) {
+                return;
+            }
+            long start = tickStartNanos;
+            long tick = tickNumber;
+            if (start == 0 || tick == reportedTick) {
+                continue;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (elapsed < thresholdNanos) {
+                continue;
+            }
+            reportedTick = tick;
+            CommandQueue queue = runningQueue;
+            CommandQueue target = response == Response.NONE ? null : tickQueue;
+            Debug.error(buildReport(tick, elapsed, queue, target));
+            if (target != null) {
+                target.watchdogRequest = response;
+            }
+        }
+    }
+
+    private String buildReport(long tick, long elapsed, CommandQueue queue, CommandQueue target) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Tick ").append(ColorSet.emphasis).append(tick).append(ColorSet.warning).append(" has been running for ")
+                .append(ColorSet.emphasis).append(elapsed / 1000000L).append("ms").append(ColorSet.warning)
+                .append(" (limit ").append(thresholdNanos / 1000000L).append("ms)");
+        if (queue == null) {
+            sb.append(", outside of any queue.");
+        }
+        while (queue != null) {
+            sb.append("\n  in queue ").append(ColorSet.emphasis).append(queue.qID).append(ColorSet.warning);
+            for (String line : describeStack(queue)) {
+                sb.append("\n    ").append(line);
+            }
+            queue = queue.runningWithin;
+        }
+        if (target != null) {
+            sb.append("\n  Asking queue ").append(ColorSet.emphasis).append(target.qID).append(ColorSet.warning).append(" to ")
+                    .append(response == Response.YIELD ? "yield" : "stop").append(" at its next command.");
+        }
+        else if (response != Response.NONE) {
+            sb.append("\n  Not running a queue from the queue list, so no queue can be asked to ")
+                    .append(response == Response.YIELD ? "yield" : "stop").append(".");
+        }
+        Thread mainThread = tickThread;
+        if (javaStacks && mainThread != null) {
+            sb.append("\n  Java stack of thread '").append(mainThread.getName()).append("':");
+            for (StackTraceElement element : mainThread.getStackTrace()) {
+                sb.append("\n    at ").append(element);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Describes each entry of a queue's command stack, innermost first.
+     * The queue is still running on another thread, so this retries if the stack changes while being read.
+     */
+    private static List<String> describeStack(CommandQueue queue) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            try {
+                List<String> lines = new ArrayList<>();
+                for (CommandStackEntry entry : queue.commandStack.toArray(new CommandStackEntry[0])) {
+                    int index = entry.getIndex() - 1;
+                    CommandEntry[] entries = entry.entries;
+                    String line = index >= 0 && index < entries.length ? entries[index].originalLine : "(unknown position)";
+                    lines.add("in script '" + ColorSet.emphasis + entry.scriptTitle + ColorSet.warning + "', at command '"
+                            + ColorSet.emphasis + line + ColorSet.warning + "'");
+                }
+                return lines;
+            }
+            catch (ConcurrentModificationException | NoSuchElementException | ArrayIndexOutOfBoundsException | NullPointerException ex) {
+                // Changed while reading: try again.
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("(the command stack kept changing while being read)");
+        return lines;
+    }
+}
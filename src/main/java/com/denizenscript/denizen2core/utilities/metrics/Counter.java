@@ -0,0 +1,27 @@
+package com.denizenscript.denizen2core.utilities.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A metric that only counts up (until reset).
+ */
+public class Counter {
+
+    private final AtomicLong value = new AtomicLong();
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void add(long amount) {
+        value.addAndGet(amount);
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    public void reset() {
+        value.set(0);
+    }
+}
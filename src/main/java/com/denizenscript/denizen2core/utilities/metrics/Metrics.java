@@ -0,0 +1,92 @@
+package com.denizenscript.denizen2core.utilities.metrics;
+
+import com.denizenscript.denizen2core.Denizen2Core;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.RegexCache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The engine's registry of named metrics: counters, gauges, and histograms.
+ * Metric names are lowercase and dot-separated. Timing histograms are in nanoseconds, and their names end in "_ns".
+ * Metrics may be read from any thread, so implementations can scrape them for external monitoring.
+ * Addons may register their own metrics here.
+ */
+public class Metrics {
+
+    private final static Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final static Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private final static Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Gets or creates the counter of the given name.
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(CoreUtilities.toLowerCase(name), (n) -> new Counter());
+    }
+
+    /**
+     * Gets or creates the histogram of the given name.
+     */
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(CoreUtilities.toLowerCase(name), (n) -> new Histogram());
+    }
+
+    /**
+     * Registers (or replaces) a gauge, which reads its value from the supplier whenever it is scraped.
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        gauges.put(CoreUtilities.toLowerCase(name), supplier);
+    }
+
+    public static Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    public static Map<String, LongSupplier> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    public static Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Zeroes all counters and histograms.
+     */
+    public static void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    public final static Histogram tickTime = histogram("tick.time_ns");
+
+    public final static Counter queuesStarted = counter("queues.started");
+
+    public final static Counter tagsEvaluated = counter("tags.evaluated");
+
+    public final static Histogram yamlLoadTime = histogram("yaml.load_ns");
+
+    public final static Histogram yamlSaveTime = histogram("yaml.save_ns");
+
+    public final static Counter procedureCacheHits = counter("procedure_cache.hits");
+
+    public final static Counter procedureCacheMisses = counter("procedure_cache.misses");
+
+    public final static Counter procedureCacheEvictions = counter("procedure_cache.evictions");
+
+    static {
+        gauge("queues.live", () -> Denizen2Core.getDefaultEngine().allQueues().size());
+        gauge("regex_cache.hits", RegexCache::getHits);
+        gauge("regex_cache.misses", RegexCache::getMisses);
+    }
+}
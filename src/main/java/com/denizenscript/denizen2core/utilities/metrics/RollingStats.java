@@ -0,0 +1,147 @@
+package com.denizenscript.denizen2core.utilities.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Execution statistics over recent time windows: time used, number of runs, and run time percentiles.
+ * Keeps one slot per second for the last minute, and one slot per minute for the last five minutes,
+ * in fixed-size ring buffers. Slot histograms are only allocated once something is recorded in them.
+ */
+public class RollingStats {
+
+    public final static int SECOND_SLOTS = 60;
+
+    public final static int MINUTE_SLOTS = 5;
+
+    /**
+     * The longest window available, in seconds.
+     */
+    public final static int MAX_WINDOW_SECONDS = MINUTE_SLOTS * 60;
+
+    /**
+     * Run times are bucketed by microsecond, using the same bucket layout as Histogram.
+     */
+    private final static int BUCKETS = Histogram.bucketFor(1L << 32) + 1;
+
+    private final static long START_NANOS = System.nanoTime();
+
+    private static class Ring {
+
+        public final long[] period;
+
+        public final long[] nsUsed;
+
+        public final long[] runs;
+
+        public final int[][] buckets;
+
+        public Ring(int size) {
+            period = new long[size];
+            nsUsed = new long[size];
+            runs = new long[size];
+            buckets = new int[size][];
+            for (int i = 0; i < size; i++) {
+                period[i] = -1;
+            }
+        }
+
+        public void record(long now, long ns, int bucket) {
+            int i = (int) (now % period.length);
+            if (period[i] != now) {
+                period[i] = now;
+                nsUsed[i] = 0;
+                runs[i] = 0;
+                if (buckets[i] != null) {
+                    Arrays.fill(buckets[i], 0);
+                }
+            }
+            nsUsed[i] += ns;
+            runs[i]++;
+            if (buckets[i] == null) {
+                buckets[i] = new int[BUCKETS];
+            }
+            buckets[i][bucket]++;
+        }
+
+        public void addTo(Window window, long now, int count) {
+            for (long p = now - count + 1; p <= now; p++) {
+                int i = (int) (p % period.length);
+                if (p < 0 || period[i] != p) {
+                    continue;
+                }
+                window.nsUsed += nsUsed[i];
+                window.runs += runs[i];
+                for (int b = 0; b < BUCKETS; b++) {
+                    window.buckets[b] += buckets[i][b];
+                }
+            }
+        }
+    }
+
+    /**
+     * The statistics for one window of time.
+     */
+    public static class Window {
+
+        public final int seconds;
+
+        public long nsUsed = 0;
+
+        public long runs = 0;
+
+        private final long[] buckets = new long[BUCKETS];
+
+        public Window(int seconds) {
+            this.seconds = seconds;
+        }
+
+        /**
+         * Returns an upper estimate of the run time at a percentile (0 to 100), in nanoseconds, or 0 if there were no runs.
+         */
+        public long percentileNanos(double percent) {
+            if (runs == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(runs * percent / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return Math.min(Histogram.bucketUpperBound(i), Long.MAX_VALUE / 1000) * 1000 + 999;
+                }
+            }
+            return 0;
+        }
+    }
+
+    private final Ring seconds = new Ring(SECOND_SLOTS);
+
+    private final Ring minutes = new Ring(MINUTE_SLOTS);
+
+    /**
+     * Records one run that took the given time and finished at the given System.nanoTime() value.
+     */
+    public synchronized void record(long ns, long nowNanos) {
+        long second = (nowNanos - START_NANOS) / 1000000000L;
+        int bucket = Math.min(Histogram.bucketFor(ns / 1000), BUCKETS - 1);
+        seconds.record(second, ns, bucket);
+        minutes.record(second / 60, ns, bucket);
+    }
+
+    /**
+     * Returns the statistics of the last given number of seconds (counted to the second up to a minute,
+     * and to the minute beyond that), up to MAX_WINDOW_SECONDS.
+     */
+    public synchronized Window getWindow(int windowSeconds) {
+        windowSeconds = Math.max(1, Math.min(windowSeconds, MAX_WINDOW_SECONDS));
+        Window window = new Window(windowSeconds);
+        long second = (System.nanoTime() - START_NANOS) / 1000000000L;
+        if (windowSeconds <= SECOND_SLOTS) {
+            seconds.addTo(window, second, windowSeconds);
+        }
+        else {
+            minutes.addTo(window, second / 60, (windowSeconds + 59) / 60);
+        }
+        return window;
+    }
+}
@@ -24,7 +24,7 @@ public class StringHolder {
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof String) {
-            return low.equals(CoreUtilities.toLowerCase((String) obj));
+            return equalsLow((String) obj);
         }
         else if (obj instanceof StringHolder) {
             return low.equals(((StringHolder) obj).low);
@@ -32,6 +32,26 @@ public class StringHolder {
         return false;
     }
 
+    /**
+     * Compares the lowercase form of this holder to the input text, as if the text were lowercased first, without allocating.
+     */
+    public boolean equalsLow(String text) {
+        int len = low.length();
+        if (text.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c -= 'A' - 'a';
+            }
+            if (c != low.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String toString() {
         return str;
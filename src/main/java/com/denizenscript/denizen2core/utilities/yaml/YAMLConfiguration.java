@@ -5,9 +5,12 @@ import com.denizenscript.denizen2core.tags.AbstractTagObject;
 import com.denizenscript.denizen2core.tags.objects.ListTag;
 import com.denizenscript.denizen2core.tags.objects.MapTag;
 import com.denizenscript.denizen2core.utilities.CoreUtilities;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.*;
 
 /**
@@ -16,58 +19,58 @@ import java.util.*;
 public class YAMLConfiguration {
 
     public static YAMLConfiguration load(String data) {
-        DumperOptions options = new DumperOptions();
-        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-        options.setAllowUnicode(true);
-        Yaml yaml = new Yaml(options);
-        Object obj = yaml.load(data);
+        return load(new StringReader(data));
+    }
+
+    public static YAMLConfiguration load(Reader data) {
+        Node node = YAMLLoader.compose(data);
         YAMLConfiguration config = new YAMLConfiguration();
-        if (obj == null) {
+        if (node == null) {
             return null;
         }
-        else if (obj instanceof String) {
-            config.contents = new HashMap<>();
-            config.contents.put(null, obj);
+        else if (node instanceof ScalarNode) {
+            Object obj = YAMLLoader.readScalar((ScalarNode) node);
+            if (!(obj instanceof String)) {
+                return null;
+            }
+            config.contents.put(new StringHolder("null"), obj);
         }
-        else if (obj instanceof Map) {
-            config.contents = (Map<StringHolder, Object>) obj;
+        else if (node instanceof MappingNode) {
+            config.contents = YAMLLoader.readSection((MappingNode) node);
         }
         else {
             return null;
         }
-        switchKeys(config.contents);
         return config;
     }
 
     Map<StringHolder, Object> contents = null;
 
     /**
-     * Use StringHolders instead of strings.
+     * Gets a value from a map of contents, building it first if it's a not-yet-loaded section.
      */
-    private static void switchKeys(Map<StringHolder, Object> objs) {
-        for (Object o : new ArrayList<>(objs.keySet())) {
-            Object got = objs.get(o);
-            objs.remove(o);
-            objs.put(new StringHolder(o == null ? "null" : o.toString()), got);
-        }
-        for (Map.Entry<StringHolder, Object> str : objs.entrySet()) {
-            if (str.getValue() instanceof Map) {
-                Map map = (Map<StringHolder, Object>) str.getValue();
-                switchKeys(map);
-                //objs.remove(map);
-                objs.put(str.getKey(), map);
-            }
+    private static Object getLoaded(Map<StringHolder, Object> objs, StringHolder key) {
+        Object obj = objs.get(key);
+        if (obj instanceof YAMLLoader.LazySection) {
+            obj = ((YAMLLoader.LazySection) obj).materialize();
+            objs.put(key, obj);
         }
+        return obj;
     }
 
     private static Map<String, Object> reverse(Map<StringHolder, Object> objs) {
         HashMap<String, Object> map = new HashMap<>();
         for (Map.Entry<StringHolder, Object> obj : objs.entrySet()) {
-            if (obj.getValue() instanceof Map) {
-                map.put(obj.getKey().str, reverse((Map<StringHolder, Object>) obj.getValue()));
+            Object value = obj.getValue();
+            if (value instanceof YAMLLoader.LazySection) {
+                value = ((YAMLLoader.LazySection) value).materialize();
+                obj.setValue(value);
+            }
+            if (value instanceof Map) {
+                map.put(obj.getKey().str, reverse((Map<StringHolder, Object>) value));
             }
             else {
-                map.put(obj.getKey().str, obj.getValue());
+                map.put(obj.getKey().str, value);
             }
         }
         return map;
@@ -100,6 +103,7 @@ public class YAMLConfiguration {
     }
 
     public Map<StringHolder, Object> getMap() {
+        YAMLLoader.materializeDeep(contents);
         return new HashMap<>(contents);
     }
 
@@ -107,6 +111,9 @@ public class YAMLConfiguration {
         Set<StringHolder> strings = new HashSet<>();
         for (Map.Entry<StringHolder, Object> obj : objs.entrySet()) {
             strings.add(new StringHolder(base + obj.getKey()));
+            if (obj.getValue() instanceof YAMLLoader.LazySection) {
+                obj.setValue(((YAMLLoader.LazySection) obj.getValue()).materialize());
+            }
             if (obj.getValue() instanceof Map) {
                 strings.addAll(getKeysDeep((Map<StringHolder, Object>) obj.getValue(), base + obj.getKey() + "."));
             }
@@ -115,22 +122,21 @@ public class YAMLConfiguration {
     }
 
     public String saveToString() {
-        DumperOptions options = new DumperOptions();
-        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-        options.setAllowUnicode(true);
-        Yaml yaml = new Yaml(options);
-        return yaml.dump(reverse(contents));
+        return YAMLLoader.dump(reverse(contents));
     }
 
-    public Object get(String path) {
-        List<String> parts = CoreUtilities.split(path, '.');
+    /**
+     * Finds the value at a path, without building any not-yet-loaded sections beneath it.
+     */
+    private Object find(YamlPath path) {
+        StringHolder[] parts = path.parts;
         Map<StringHolder, Object> portion = contents;
-        for (int i = 0; i < parts.size(); i++) {
-            Object oPortion = portion.get(new StringHolder(parts.get(i)));
+        for (int i = 0; i < parts.length; i++) {
+            Object oPortion = getLoaded(portion, parts[i]);
             if (oPortion == null) {
                 return null;
             }
-            else if (parts.size() == i + 1) {
+            else if (parts.length == i + 1) {
                 return oPortion;
             }
             else if (oPortion instanceof Map) {
@@ -143,50 +149,57 @@ public class YAMLConfiguration {
         return null;
     }
 
+    public Object get(String path) {
+        return get(YamlPath.of(path));
+    }
+
+    public Object get(YamlPath path) {
+        return YAMLLoader.materializeDeep(find(path));
+    }
+
     public void set(String path, Object o) {
+        set(YamlPath.of(path), o);
+    }
+
+    public void set(YamlPath path, Object o) {
         if (o instanceof YAMLConfiguration) {
             o = new HashMap<>(((YAMLConfiguration) o).contents);
         }
-        List<String> parts = CoreUtilities.split(path, '.');
+        StringHolder[] parts = path.parts;
         Map<StringHolder, Object> portion = contents;
-        for (int i = 0; i < parts.size(); i++) {
-            Object oPortion = portion.get(new StringHolder(parts.get(i)));
-            if (parts.size() == i + 1) {
+        for (int i = 0; i < parts.length; i++) {
+            if (parts.length == i + 1) {
                 if (o == null) {
-                    portion.remove(new StringHolder(parts.get(i)));
+                    portion.remove(parts[i]);
                     emptyEmptyMaps(parts);
                 }
                 else {
-                    portion.put(new StringHolder(parts.get(i)), o);
+                    portion.put(parts[i], o);
                 }
                 return;
             }
-            else if (oPortion == null) {
-                Map<StringHolder, Object> map = new HashMap<>();
-                portion.put(new StringHolder(parts.get(i)), map);
-                portion = map;
-            }
-            else if (oPortion instanceof Map) {
+            Object oPortion = getLoaded(portion, parts[i]);
+            if (oPortion instanceof Map) {
                 portion = (Map<StringHolder, Object>) oPortion;
             }
             else {
                 Map<StringHolder, Object> map = new HashMap<>();
-                portion.put(new StringHolder(parts.get(i)), map);
+                portion.put(parts[i], map);
                 portion = map;
             }
         }
     }
 
-    void emptyEmptyMaps(List<String> parts) {
+    void emptyEmptyMaps(StringHolder[] parts) {
         Map<StringHolder, Object> portion = contents;
-        for (int i = 0; i < parts.size(); i++) {
-            Object oPortion = portion.get(new StringHolder(parts.get(i)));
+        for (int i = 0; i < parts.length; i++) {
+            Object oPortion = getLoaded(portion, parts[i]);
             if (oPortion == null) {
                 return;
             }
             else if (oPortion instanceof Map) {
                 if (((Map<StringHolder, Object>) oPortion).size() == 0) {
-                    portion.remove(new StringHolder(parts.get(i)));
+                    portion.remove(parts[i]);
                     emptyEmptyMaps(parts);
                     return;
                 }
@@ -199,10 +212,18 @@ public class YAMLConfiguration {
     }
 
     public boolean contains(String path) {
-        return get(path) != null;
+        return contains(YamlPath.of(path));
+    }
+
+    public boolean contains(YamlPath path) {
+        return find(path) != null;
     }
 
     public String getString(String path) {
+        return getString(YamlPath.of(path));
+    }
+
+    public String getString(YamlPath path) {
         Object o = get(path);
         if (o == null) {
             return null;
@@ -211,6 +232,10 @@ public class YAMLConfiguration {
     }
 
     public String getString(String path, String def) {
+        return getString(YamlPath.of(path), def);
+    }
+
+    public String getString(YamlPath path, String def) {
         Object o = get(path);
         if (o == null) {
             return def;
@@ -219,14 +244,11 @@ public class YAMLConfiguration {
     }
 
     public boolean isList(String path) {
-        Object o = get(path);
-        if (o == null) {
-            return false;
-        }
-        if (!(o instanceof List)) {
-            return false;
-        }
-        return true;
+        return isList(YamlPath.of(path));
+    }
+
+    public boolean isList(YamlPath path) {
+        return find(path) instanceof List;
     }
 
     public AbstractTagObject objectFor(Object obj) {
@@ -256,14 +278,23 @@ public class YAMLConfiguration {
     }
 
     public ListTag getListTag(String path) {
-        return listify(getList(path));
+        return getListTag(YamlPath.of(path));
     }
 
-    public List<Object> getList(String path) {
-        Object o = get(path);
-        if (o == null) {
+    public ListTag getListTag(YamlPath path) {
+        List<Object> list = getList(path);
+        if (list == null) {
             return null;
         }
+        return listify(list);
+    }
+
+    public List<Object> getList(String path) {
+        return getList(YamlPath.of(path));
+    }
+
+    public List<Object> getList(YamlPath path) {
+        Object o = find(path);
         if (!(o instanceof List)) {
             return null;
         }
@@ -271,10 +302,11 @@ public class YAMLConfiguration {
     }
 
     public List<String> getStringList(String path) {
-        Object o = get(path);
-        if (o == null) {
-            return null;
-        }
+        return getStringList(YamlPath.of(path));
+    }
+
+    public List<String> getStringList(YamlPath path) {
+        Object o = find(path);
         if (!(o instanceof List)) {
             return null;
         }
@@ -285,28 +317,19 @@ public class YAMLConfiguration {
         if (path.length() == 0) {
             return this;
         }
-        List<String> parts = CoreUtilities.split(path, '.');
-        Map<StringHolder, Object> portion = contents;
-        for (int i = 0; i < parts.size(); i++) {
-            Object oPortion = portion.get(new StringHolder(parts.get(i)));
-            if (oPortion == null) {
-                return null;
-            }
-            else if (parts.size() == i + 1) {
-                YAMLConfiguration configuration = new YAMLConfiguration();
-                if (!(oPortion instanceof Map)) {
-                    return null;
-                }
-                configuration.contents = (Map<StringHolder, Object>) oPortion;
-                return configuration;
-            }
-            else if (oPortion instanceof Map) {
-                portion = (Map<StringHolder, Object>) oPortion;
-            }
-            else {
-                return null;
-            }
+        return getConfigurationSection(YamlPath.of(path));
+    }
+
+    public YAMLConfiguration getConfigurationSection(YamlPath path) {
+        if (path.isEmpty()) {
+            return this;
         }
-        return null;
+        Object oPortion = find(path);
+        if (!(oPortion instanceof Map)) {
+            return null;
+        }
+        YAMLConfiguration configuration = new YAMLConfiguration();
+        configuration.contents = (Map<StringHolder, Object>) oPortion;
+        return configuration;
     }
 }
@@ -0,0 +1,155 @@
+package com.denizenscript.denizen2core.utilities.yaml;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class primarily for internal usage with {@link YAMLConfiguration}.
+ * Builds StringHolder-keyed maps directly from SnakeYAML's node tree, leaving nested sections unbuilt until first used.
+ */
+public class YAMLLoader {
+
+    /**
+     * Exposes SnakeYAML's scalar construction (ints, booleans, timestamps, ...) without its per-document object tracking.
+     */
+    private static class ScalarConstructor extends SafeConstructor {
+
+        public Object constructScalarValue(ScalarNode node) {
+            try {
+                return getConstructor(node).construct(node);
+            }
+            catch (YAMLException ex) {
+                // Unknown or invalid explicit tag: keep the raw text.
+                return node.getValue();
+            }
+        }
+
+        public void flatten(MappingNode node) {
+            flattenMapping(node);
+        }
+    }
+
+    private final static ThreadLocal<Yaml> composers = ThreadLocal.withInitial(Yaml::new);
+
+    private final static ThreadLocal<ScalarConstructor> constructors = ThreadLocal.withInitial(ScalarConstructor::new);
+
+    private final static ThreadLocal<Yaml> dumpers = ThreadLocal.withInitial(() -> {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setAllowUnicode(true);
+        return new Yaml(options);
+    });
+
+    /**
+     * A section of YAML that has been parsed but not yet built into a map.
+     */
+    public static class LazySection {
+
+        private final MappingNode node;
+
+        private LazySection(MappingNode mappingNode) {
+            node = mappingNode;
+        }
+
+        public Map<StringHolder, Object> materialize() {
+            return readSection(node);
+        }
+    }
+
+    public static Node compose(Reader reader) {
+        return composers.get().compose(reader);
+    }
+
+    public static String dump(Object data) {
+        return dumpers.get().dump(data);
+    }
+
+    public static Object readScalar(ScalarNode node) {
+        return constructors.get().constructScalarValue(node);
+    }
+
+    /**
+     * Builds a single level of a mapping node. Nested mappings are left as {@link LazySection}s.
+     */
+    public static Map<StringHolder, Object> readSection(MappingNode node) {
+        constructors.get().flatten(node);
+        List<NodeTuple> tuples = node.getValue();
+        Map<StringHolder, Object> result = new LinkedHashMap<>(Math.max(16, tuples.size() * 2));
+        for (NodeTuple tuple : tuples) {
+            Object key = readPlain(tuple.getKeyNode());
+            Node valueNode = tuple.getValueNode();
+            Object value;
+            if (valueNode instanceof MappingNode) {
+                value = new LazySection((MappingNode) valueNode);
+            }
+            else {
+                value = readPlain(valueNode);
+            }
+            result.put(new StringHolder(key == null ? "null" : key.toString()), value);
+        }
+        return result;
+    }
+
+    /**
+     * Fully builds a node into plain Java objects, as SnakeYAML would (maps are keyed by their original objects).
+     */
+    public static Object readPlain(Node node) {
+        if (node instanceof ScalarNode) {
+            return readScalar((ScalarNode) node);
+        }
+        else if (node instanceof SequenceNode) {
+            List<Node> nodes = ((SequenceNode) node).getValue();
+            List<Object> list = new ArrayList<>(nodes.size());
+            for (Node sub : nodes) {
+                list.add(readPlain(sub));
+            }
+            return list;
+        }
+        else if (node instanceof MappingNode) {
+            constructors.get().flatten((MappingNode) node);
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                map.put(readPlain(tuple.getKeyNode()), readPlain(tuple.getValueNode()));
+            }
+            return map;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value, built into a map if it was a {@link LazySection}.
+     */
+    public static Object materialize(Object value) {
+        if (value instanceof LazySection) {
+            return ((LazySection) value).materialize();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value with any {@link LazySection}s within it (at any depth) built.
+     * Already-built maps are updated in place.
+     */
+    @SuppressWarnings("unchecked")
+    public static Object materializeDeep(Object value) {
+        value = materialize(value);
+        if (value instanceof Map) {
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+                Object sub = entry.getValue();
+                if (sub instanceof Map || sub instanceof LazySection) {
+                    entry.setValue(materializeDeep(sub));
+                }
+            }
+        }
+        return value;
+    }
+}
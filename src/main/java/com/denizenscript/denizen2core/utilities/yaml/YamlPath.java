@@ -0,0 +1,63 @@
+package com.denizenscript.denizen2core.utilities.yaml;
+
+import com.denizenscript.denizen2core.arguments.Argument;
+import com.denizenscript.denizen2core.arguments.TagBit;
+import com.denizenscript.denizen2core.tags.TagData;
+import com.denizenscript.denizen2core.utilities.CoreUtilities;
+import com.denizenscript.denizen2core.utilities.LRUCache;
+
+import java.util.List;
+
+/**
+ * Represents a pre-split, pre-lowercased dotted path into a {@link YAMLConfiguration}.
+ */
+public class YamlPath {
+
+    private final static LRUCache<String, YamlPath> cache = new LRUCache<>(1024);
+
+    /**
+     * Gets the compiled form of a dotted path, reusing a cached copy when possible.
+     */
+    public static YamlPath of(String path) {
+        return cache.getOrCompute(path, YamlPath::new);
+    }
+
+    /**
+     * Gets the compiled form of a path argument, remembering it on the tag bit if the argument is a literal.
+     */
+    public static YamlPath getNextModifierPath(TagData data) {
+        TagBit bit = data.bits[data.currentIndex()];
+        if (bit.specialLocalData instanceof YamlPath) {
+            return (YamlPath) bit.specialLocalData;
+        }
+        Argument arg = bit.variable;
+        if (arg != null && arg.isConstant()) {
+            YamlPath path = of(arg.toString());
+            bit.specialLocalData = path;
+            return path;
+        }
+        return of(data.getNextModifier().toString());
+    }
+
+    public final String path;
+
+    public final StringHolder[] parts;
+
+    private YamlPath(String input) {
+        path = input;
+        List<String> split = CoreUtilities.split(input, '.');
+        parts = new StringHolder[split.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new StringHolder(split.get(i));
+        }
+    }
+
+    public boolean isEmpty() {
+        return path.length() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}